@@ -0,0 +1,41 @@
+package com.packetpub.libgdx.canyonbunny.benchmarks;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.packetpub.libgdx.canyonbunny.game.Assets;
+import com.packetpub.libgdx.canyonbunny.headless.HeadlessGL;
+import com.packetpub.libgdx.canyonbunny.util.GamePreferences;
+
+/**
+ * Sets up libGDX without a window, so game objects can be created inside a
+ * benchmark. Gdx.files reads from the working directory, which has to be the
+ * assets directory, Gdx.gl does nothing and the audio is mocked.
+ *
+ * @author Gabe Werick
+ */
+public class BenchmarkEnvironment
+{
+	private static boolean started;
+
+	/**
+	 * Starts the headless backend and loads the assets, once per JVM
+	 */
+	public static synchronized void start()
+	{
+		if (started)
+			return;
+		started = true;
+		new HeadlessApplication(new ApplicationAdapter()
+		{
+		}, new HeadlessApplicationConfiguration());
+		Gdx.gl = Gdx.gl20 = HeadlessGL.create();
+		// game objects log every collected item
+		Gdx.app.setLogLevel(Application.LOG_NONE);
+		Assets.instance.init(new AssetManager());
+		GamePreferences.instance.load();
+	}
+}
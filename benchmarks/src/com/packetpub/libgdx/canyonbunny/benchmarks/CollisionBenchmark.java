@@ -0,0 +1,131 @@
+package com.packetpub.libgdx.canyonbunny.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.packetpub.libgdx.canyonbunny.game.Level;
+import com.packetpub.libgdx.canyonbunny.game.WorldController;
+import com.packetpub.libgdx.canyonbunny.game.objects.Rock;
+
+/**
+ * Measures WorldController.testCollisions() on levels with more or fewer
+ * rocks and coins. The bunny is moved onto a different rock or coin for every
+ * call, so each call finds something to collide with. Coins are put back
+ * before the bunny lands on them.
+ *
+ * tick() adds the physics step, which is where pickup sensors find the items.
+ * Sensor contacts are only reported a step after the bunny jumps somewhere,
+ * so there the bunny stays on each target for two calls.
+ *
+ * @author Gabe Werick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark
+{
+	// below LEVEL_STREAMING_MIN_WIDTH, so every object is live
+	private static final int WIDTH = 200;
+
+	@Param({ "0.1", "0.5", "0.9" })
+	public float rockDensity;
+
+	@Param({ "0.1", "0.5" })
+	public float coinDensity;
+
+	@Param({ "false", "true" })
+	public boolean pickupSensors;
+
+	private WorldController worldController;
+	private Level level;
+	// bunny positions, one on each rock and coin
+	private Array<Vector2> targets;
+	// index of the coin at each target, -1 for rocks
+	private IntArray targetCoins;
+	private int next;
+	private int calls;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.start();
+		level = new Level(SyntheticLevels.create(WIDTH, rockDensity, coinDensity));
+		worldController = new WorldController(new Game()
+		{
+			@Override
+			public void create()
+			{
+			}
+		}, level, pickupSensors);
+
+		targets = new Array<Vector2>();
+		targetCoins = new IntArray();
+		for (Rock rock : level.rocks)
+		{
+			targets.add(new Vector2(rock.position.x, rock.position.y + 0.5f));
+			targetCoins.add(-1);
+		}
+		for (int i = 0; i < level.goldcoins.size; i++)
+		{
+			targets.add(new Vector2(level.goldcoins.getX(i), level.goldcoins.getY(i)));
+			targetCoins.add(i);
+		}
+		next = 0;
+		calls = 0;
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		worldController.dispose();
+	}
+
+	@Benchmark
+	public int testCollisions()
+	{
+		moveToNextTarget();
+		worldController.testCollisions();
+		return worldController.score;
+	}
+
+	@Benchmark
+	public int tick()
+	{
+		if (calls++ % 2 == 0)
+			moveToNextTarget();
+		worldController.testCollisions();
+		worldController.stepPhysics(1.0f / 60.0f);
+		return worldController.score;
+	}
+
+	/**
+	 * Puts the bunny on the next target, putting back the coin there
+	 */
+	private void moveToNextTarget()
+	{
+		int goldCoin = targetCoins.get(next);
+		if (goldCoin >= 0)
+			level.goldcoins.setCollected(goldCoin, false);
+		level.bunnyHead.position.set(targets.get(next));
+		next = (next + 1) % targets.size;
+	}
+}
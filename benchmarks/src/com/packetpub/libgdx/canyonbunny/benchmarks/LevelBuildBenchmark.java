@@ -0,0 +1,62 @@
+package com.packetpub.libgdx.canyonbunny.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.packetpub.libgdx.canyonbunny.game.Level;
+import com.packetpub.libgdx.canyonbunny.game.LevelData;
+
+/**
+ * Measures turning a level image into a level: decoding the pixels into a
+ * layout, and building every game object from the layout. The widths stay
+ * below LEVEL_STREAMING_MIN_WIDTH, so every rock is built here. Streamed
+ * levels are measured by LevelStreamingBenchmark, reading level files by
+ * LevelLoadBenchmark.
+ *
+ * @author Gabe Werick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBuildBenchmark
+{
+	@Param({ "32", "64", "128", "255" })
+	public int width;
+
+	private int[] pixels;
+	private LevelData data;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.start();
+		pixels = SyntheticLevels.pixels(width, 0.6f, 0.3f);
+		data = LevelData.decode(width, SyntheticLevels.HEIGHT, pixels);
+	}
+
+	@Benchmark
+	public LevelData decode()
+	{
+		return LevelData.decode(width, SyntheticLevels.HEIGHT, pixels);
+	}
+
+	@Benchmark
+	public Level build()
+	{
+		return new Level(data);
+	}
+}
@@ -0,0 +1,74 @@
+package com.packetpub.libgdx.canyonbunny.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.packetpub.libgdx.canyonbunny.game.Level;
+import com.packetpub.libgdx.canyonbunny.game.LevelData;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
+
+/**
+ * Measures loading the shipped level from its files, the way the game does:
+ * reading the compiled level, the same with decoding the image instead, and
+ * the whole Level(String) constructor. Has to run in the assets directory.
+ *
+ * @author Gabe Werick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelLoadBenchmark
+{
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.start();
+		if (!Gdx.files.internal(LevelData.compiledFileName(Constants.LEVEL_01)).exists())
+			throw new IllegalStateException("No compiled level, run desktop:compileLevels first");
+	}
+
+	/**
+	 * Reads the compiled level, after checking it against the image
+	 */
+	@Benchmark
+	public LevelData loadCompiled()
+	{
+		return LevelData.load(Constants.LEVEL_01);
+	}
+
+	/**
+	 * Decodes the level image, what loading does without a compiled level
+	 */
+	@Benchmark
+	public LevelData loadDecoded()
+	{
+		Pixmap pixmap = new Pixmap(Gdx.files.internal(Constants.LEVEL_01));
+		LevelData data = LevelData.decode(pixmap);
+		pixmap.dispose();
+		return data;
+	}
+
+	/**
+	 * Loads the level and builds all of its objects
+	 */
+	@Benchmark
+	public Level loadLevel()
+	{
+		return new Level(Constants.LEVEL_01);
+	}
+}
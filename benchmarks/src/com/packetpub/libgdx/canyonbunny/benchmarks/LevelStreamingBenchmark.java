@@ -0,0 +1,60 @@
+package com.packetpub.libgdx.canyonbunny.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.packetpub.libgdx.canyonbunny.game.Level;
+import com.packetpub.libgdx.canyonbunny.game.LevelData;
+
+/**
+ * Measures setting up a streamed level, from LEVEL_STREAMING_MIN_WIDTH
+ * columns on. Only the items and the chunks are created, and the first
+ * update streams in the rocks around the spawn point.
+ *
+ * @author Gabe Werick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelStreamingBenchmark
+{
+	@Param({ "256", "1024", "4096" })
+	public int width;
+
+	private LevelData data;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.start();
+		data = SyntheticLevels.create(width, 0.6f, 0.3f);
+	}
+
+	@Benchmark
+	public Level setUpChunks()
+	{
+		return new Level(data);
+	}
+
+	@Benchmark
+	public Level setUpChunksAndStreamSpawn()
+	{
+		Level level = new Level(data);
+		level.chunks.update(level.bunnyHead.position.x);
+		return level;
+	}
+}
@@ -0,0 +1,105 @@
+package com.packetpub.libgdx.canyonbunny.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.World;
+import com.packetpub.libgdx.canyonbunny.game.Assets;
+import com.packetpub.libgdx.canyonbunny.game.CollectibleStore;
+import com.packetpub.libgdx.canyonbunny.game.objects.Clouds;
+import com.packetpub.libgdx.canyonbunny.game.objects.Rock;
+
+/**
+ * Measures one update of many game objects: gold coins advancing their
+ * animation, rocks following their kinematic bodies, and clouds drifting and
+ * being replaced as they leave the level.
+ *
+ * @author Gabe Werick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectUpdateBenchmark
+{
+	private static final float DELTA_TIME = 1.0f / 60.0f;
+
+	@Param({ "1000", "10000" })
+	public int count;
+
+	private CollectibleStore goldCoins;
+	private Rock[] rocks;
+	private World b2world;
+	private Clouds clouds;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkEnvironment.start();
+
+		goldCoins = new CollectibleStore(Assets.instance.goldCoin.animGoldCoin, 0.5f, 100, count);
+		for (int i = 0; i < count; i++)
+			goldCoins.add(i, 0);
+		goldCoins.sortColumns();
+
+		b2world = new World(new Vector2(0, -9.81f), true);
+		rocks = new Rock[count];
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyType.KinematicBody;
+		for (int i = 0; i < count; i++)
+		{
+			rocks[i] = new Rock();
+			rocks[i].position.set(i * 2, 0);
+			bodyDef.position.set(rocks[i].position);
+			rocks[i].body = b2world.createBody(bodyDef);
+		}
+
+		// one cloud every five columns
+		clouds = new Clouds(count * 5);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		b2world.dispose();
+	}
+
+	@Benchmark
+	public CollectibleStore updateGoldCoins()
+	{
+		goldCoins.update(DELTA_TIME);
+		return goldCoins;
+	}
+
+	@Benchmark
+	public Rock[] updateRocks()
+	{
+		for (Rock rock : rocks)
+			rock.update(DELTA_TIME);
+		return rocks;
+	}
+
+	@Benchmark
+	public Clouds updateClouds()
+	{
+		clouds.update(DELTA_TIME);
+		return clouds;
+	}
+}
@@ -0,0 +1,73 @@
+package com.packetpub.libgdx.canyonbunny.benchmarks;
+
+import java.util.Random;
+
+import com.packetpub.libgdx.canyonbunny.game.Level.BLOCK_TYPE;
+import com.packetpub.libgdx.canyonbunny.game.LevelData;
+
+/**
+ * Generates level images of any width, laid out like the hand-made levels:
+ * platforms of rocks on a few rows with gold coins and feathers above them.
+ * The same arguments always give the same level.
+ *
+ * @author Gabe Werick
+ */
+public class SyntheticLevels
+{
+	public static final int HEIGHT = 32;
+	public static final long SEED = 361;
+
+	/**
+	 * Generates the pixels of a level image
+	 *
+	 * @param width
+	 *            width of the level in columns
+	 * @param rockDensity
+	 *            share of columns with a rock, from 0 to 1
+	 * @param itemDensity
+	 *            share of columns with a gold coin, from 0 to 1
+	 * @return RGBA8888 pixels, row by row from the top
+	 */
+	public static int[] pixels(int width, float rockDensity, float itemDensity)
+	{
+		Random random = new Random(SEED);
+		int[] pixels = new int[width * HEIGHT];
+		for (int i = 0; i < pixels.length; i++)
+			pixels[i] = BLOCK_TYPE.EMPTY.getColor();
+
+		// spawn on the left, goal far above the platforms so it is never hit
+		set(pixels, width, 1, 28, BLOCK_TYPE.PLAYER_SPAWNPOINT);
+		set(pixels, width, width - 1, 0, BLOCK_TYPE.GOAL);
+
+		for (int x = 2; x < width - 2; x++)
+		{
+			// platforms change rows every 8 columns
+			int rockRow = 24 + (x / 8) % 4;
+			if (random.nextFloat() < rockDensity)
+				set(pixels, width, x, rockRow, BLOCK_TYPE.ROCK);
+			if (random.nextFloat() < itemDensity)
+				set(pixels, width, x, rockRow - 3, BLOCK_TYPE.ITEM_GOLD_COIN);
+			else if (random.nextFloat() < itemDensity / 10)
+				set(pixels, width, x, rockRow - 3, BLOCK_TYPE.ITEM_FEATHER);
+		}
+		return pixels;
+	}
+
+	/**
+	 * Generates and decodes a level
+	 *
+	 * @see #pixels(int, float, float)
+	 */
+	public static LevelData create(int width, float rockDensity, float itemDensity)
+	{
+		return LevelData.decode(width, HEIGHT, pixels(width, rockDensity, itemDensity));
+	}
+
+	/**
+	 * Sets one pixel to the color of a block type
+	 */
+	private static void set(int[] pixels, int width, int x, int y, BLOCK_TYPE type)
+	{
+		pixels[y * width + x] = type.getColor();
+	}
+}
@@ -1,12 +1,14 @@
 package com.packetpub.libgdx.canyonbunny;
 
 import com.badlogic.gdx.Application;
-import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
 import com.packetpub.libgdx.canyonbunny.game.Assets;
-import com.packetpub.libgdx.canyonbunny.screens.MenuScreen;
+import com.packetpub.libgdx.canyonbunny.screens.LoadingScreen;
+import com.packetpub.libgdx.canyonbunny.screens.ScreenManager;
 import com.packetpub.libgdx.canyonbunny.util.AudioManager;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
 import com.packetpub.libgdx.canyonbunny.util.GamePreferences;
 
 /**
@@ -15,20 +17,54 @@ import com.packetpub.libgdx.canyonbunny.util.GamePreferences;
  * @author Tyler Forrester
  */
 
-public class CanyonBunnyMain extends Game
+public class CanyonBunnyMain extends ScreenManager
 {
 	@Override
 	public void create()
 	{
 		// Set Libgdx log level
 		Gdx.app.setLogLevel(Application.LOG_DEBUG);
-		// Load assets
-		Assets.instance.init(new AssetManager());
-		// Load perferences for audio settings and start playing music
+		// Load perferences for audio settings
 		GamePreferences.instance.load();
-		AudioManager.instance.play(Assets.instance.music.song01);
-		// Start game at menu screen
-		setScreen(new MenuScreen(this));
+		// Load assets a bit every frame behind a progress bar, then start
+		// playing music and the game at the menu screen
+		Assets.instance.load(new AssetManager());
+		setScreen(new LoadingScreen(this, new LoadingScreen.Task()
+		{
+			@Override
+			public boolean update()
+			{
+				return Assets.instance.update(Constants.ASSET_LOAD_MILLIS_PER_FRAME);
+			}
+
+			@Override
+			public float getProgress()
+			{
+				return Assets.instance.getProgress();
+			}
+
+			@Override
+			public Screen createNextScreen()
+			{
+				AudioManager.instance.play(Assets.instance.music.song01);
+				return getMenuScreen(CanyonBunnyMain.this);
+			}
+
+			@Override
+			public void dispose()
+			{
+			}
+		}));
+	}
+
+	/**
+	 * Frees the screens and then the assets they used
+	 */
+	@Override
+	public void dispose()
+	{
+		super.dispose();
+		Assets.instance.dispose();
 	}
 }
 
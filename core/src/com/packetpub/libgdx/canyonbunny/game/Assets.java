@@ -4,16 +4,22 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetErrorListener;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.SkinLoader.SkinParameter;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
 import com.badlogic.gdx.utils.Disposable;
 import com.packetpub.libgdx.canyonbunny.util.Constants;
+import com.packetpub.libgdx.canyonbunny.util.GLContextWatcher;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
 /**
  * @author Kevin Rutter Handles texture loading using a texture atlas.
@@ -34,6 +40,14 @@ public class Assets implements Disposable, AssetErrorListener
 	public AssetGoldCoin goldCoin;
 	public AssetFeather feather;
 	public AssetLevelDecoration levelDecoration;
+	public AssetParticles particles;
+	public AssetSkins skins;
+	// the one page of the atlas every game object is drawn from
+	public Texture objectsTexture;
+	// true once the resource objects above have been created
+	private boolean loaded;
+	// tells when the GL context was lost and textures were uploaded again
+	public GLContextWatcher contextWatcher;
 
 	// singleton: prevent instantiation from other classes
 	private Assets()
@@ -41,7 +55,8 @@ public class Assets implements Disposable, AssetErrorListener
 	}
 
 	/**
-	 * Fonts for the game
+	 * Fonts for the game. The three sizes share the glyphs packed into the
+	 * object atlas, so text and game objects are drawn from one texture.
 	 * 
 	 * @author Tyler
 	 *
@@ -53,33 +68,47 @@ public class Assets implements Disposable, AssetErrorListener
 		public final BitmapFont defaultNormal;
 		public final BitmapFont defaultBig;
 
-		public AssetFonts()
+		public AssetFonts(TextureAtlas atlas)
 		{
 			// Create three fonts using Libgdx' 15px bitmap font
-			defaultSmall = new BitmapFont(Gdx.files.internal("images/arial-15.fnt"), true);
-			defaultNormal = new BitmapFont(Gdx.files.internal("images/arial-15.fnt"), true);
-			defaultBig = new BitmapFont(Gdx.files.internal("images/arial-15.fnt"), true);
+			AtlasRegion glyphs = atlas.findRegion(Constants.FONT_GLYPHS);
+			defaultSmall = new BitmapFont(Gdx.files.internal(Constants.FONT_DEFAULT), glyphs, true);
+			defaultNormal = new BitmapFont(Gdx.files.internal(Constants.FONT_DEFAULT), glyphs, true);
+			defaultBig = new BitmapFont(Gdx.files.internal(Constants.FONT_DEFAULT), glyphs, true);
 			// set font sizes
 			defaultSmall.getData().setScale(0.75f);
 			defaultNormal.getData().setScale(1.0f);
 			defaultBig.getData().setScale(2.0f);
-			// enable linear texture filtering for smooth fonts
-			defaultSmall.getRegion().getTexture().setFilter(TextureFilter.Linear, TextureFilter.Linear);
-			defaultNormal.getRegion().getTexture().setFilter(TextureFilter.Linear, TextureFilter.Linear);
-			defaultBig.getRegion().getTexture().setFilter(TextureFilter.Linear, TextureFilter.Linear);
-
 		}
 	}
 
 	/**
-	 * Load up the texture atlas.
+	 * Load up the texture atlas and wait until every asset is loaded.
 	 * 
 	 * @param assetManager
 	 *            The asset manager this class will use.
 	 */
 	public void init(AssetManager assetManager)
+	{
+		load(assetManager);
+		// wait until finished
+		assetManager.finishLoading();
+		onLoaded();
+	}
+
+	/**
+	 * Queues every asset for loading without waiting for them. update() then
+	 * loads them a bit at a time.
+	 * 
+	 * @param assetManager
+	 *            The asset manager this class will use.
+	 */
+	public void load(AssetManager assetManager)
 	{
 		this.assetManager = assetManager;
+		loaded = false;
+		if (contextWatcher == null)
+			contextWatcher = new GLContextWatcher();
 		// set asset manager error handler
 		assetManager.setErrorListener(this);
 		// load texture atlas
@@ -92,8 +121,45 @@ public class Assets implements Disposable, AssetErrorListener
 		assetManager.load("sounds/live_lost.wav", Sound.class);
 		// load music
 		assetManager.load("music/keith303_-_brand_new_highscore.mp3", Music.class);
-		// start loading assets and wait until finished
-		assetManager.finishLoading();
+		// load particle effects
+		assetManager.load(Constants.PARTICLES_DUST, ParticleEffect.class);
+		// load menu skins, their atlases come along as dependencies
+		assetManager.load(Constants.SKIN_CANYONBUNNY_UI, Skin.class, new SkinParameter(Constants.TEXTURE_ATLAS_UI));
+		assetManager.load(Constants.SKIN_LIBGDX_UI, Skin.class, new SkinParameter(Constants.TEXTURE_ATLAS_LIBGDX_UI));
+	}
+
+	/**
+	 * Loads queued assets for up to the given time, call once per frame from
+	 * the render thread. The game resource objects are created once the
+	 * last asset is in.
+	 * 
+	 * @param millis
+	 *            time the call may take, a single large asset may take longer
+	 * @return true when every asset is loaded
+	 */
+	public boolean update(int millis)
+	{
+		if (loaded)
+			return true;
+		if (!assetManager.update(millis))
+			return false;
+		onLoaded();
+		return true;
+	}
+
+	/**
+	 * Returns how far loading has come, from 0 to 1
+	 */
+	public float getProgress()
+	{
+		return loaded ? 1 : assetManager.getProgress();
+	}
+
+	/**
+	 * Creates the game resource objects from the loaded assets
+	 */
+	private void onLoaded()
+	{
 		Gdx.app.debug(TAG, "# of assets loaded: " + assetManager.getAssetNames().size);
 		for (String a : assetManager.getAssetNames())
 			Gdx.app.debug(TAG, "asset: " + a);
@@ -106,8 +172,10 @@ public class Assets implements Disposable, AssetErrorListener
 			t.setFilter(TextureFilter.Linear, TextureFilter.Linear);
 		}
 
+		objectsTexture = atlas.getTextures().first();
+
 		// create game resource objects\
-		fonts = new AssetFonts();
+		fonts = new AssetFonts(atlas);
 		bunny = new AssetBunny(atlas);
 		rock = new AssetRock(atlas);
 		goldCoin = new AssetGoldCoin(atlas);
@@ -115,6 +183,21 @@ public class Assets implements Disposable, AssetErrorListener
 		levelDecoration = new AssetLevelDecoration(atlas);
 		sounds = new AssetSounds(assetManager);
 		music = new AssetMusic(assetManager);
+		particles = new AssetParticles(assetManager);
+		skins = new AssetSkins(assetManager);
+		loaded = true;
+	}
+
+	/**
+	 * Called when the game comes back from the background. Everything stays
+	 * loaded in the asset manager, sounds and music included. If the GL
+	 * context was lost the backend has already uploaded the managed textures
+	 * again, so nothing is loaded here.
+	 */
+	public void resume()
+	{
+		if (contextWatcher.wasLost())
+			Gdx.app.debug(TAG, "GL context was lost, textures were uploaded again");
 	}
 
 	/**
@@ -124,9 +207,10 @@ public class Assets implements Disposable, AssetErrorListener
 	public void dispose()
 	{
 		assetManager.dispose();
-		fonts.defaultSmall.dispose();
-		fonts.defaultNormal.dispose();
-		fonts.defaultBig.dispose();
+		contextWatcher.dispose();
+		contextWatcher = null;
+		// the fonts draw from the object atlas, freed with the asset manager
+		fonts = null;
 	}
 
 	/**
@@ -245,7 +329,7 @@ public class Assets implements Disposable, AssetErrorListener
 	public class AssetGoldCoin
 	{
 		public final AtlasRegion goldCoin;
-		public final Animation animGoldCoin;
+		public final Animation<TextureRegion> animGoldCoin;
 
 		/**
 		 * Sets head to hold the reference to the correct region for Gold Coin
@@ -262,7 +346,7 @@ public class Assets implements Disposable, AssetErrorListener
 			AtlasRegion region = regions.first();
 			for (int i = 0; i < 10; i++)
 				regions.insert(0, region);
-			animGoldCoin = new Animation(1.0f / 20.0f, regions,
+			animGoldCoin = new Animation<TextureRegion>(1.0f / 20.0f, regions,
 					Animation.PlayMode.LOOP_PINGPONG);
 		}
 	}
@@ -309,6 +393,36 @@ public class Assets implements Disposable, AssetErrorListener
 		}
 	}
 
+	/**
+	 * Holds the particle effects. Each effect is loaded once and handed out from
+	 * a pool as copies sharing its images.
+	 */
+	public class AssetParticles
+	{
+		public final ParticleEffectPool dust;
+
+		public AssetParticles(AssetManager am)
+		{
+			dust = new ParticleEffectPool(am.get(Constants.PARTICLES_DUST, ParticleEffect.class), 1, 4);
+		}
+	}
+
+	/**
+	 * Holds the skins of the menu. They stay loaded for the whole game, so
+	 * building the menu again reads nothing from disk.
+	 */
+	public class AssetSkins
+	{
+		public final Skin canyonBunny;
+		public final Skin libgdx;
+
+		public AssetSkins(AssetManager am)
+		{
+			canyonBunny = am.get(Constants.SKIN_CANYONBUNNY_UI, Skin.class);
+			libgdx = am.get(Constants.SKIN_LIBGDX_UI, Skin.class);
+		}
+	}
+
 	/**
 	 * @Author Tyler Forrester This class holds info for the game music
 	 */
@@ -0,0 +1,112 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.packetpub.libgdx.canyonbunny.game.objects.Carrot;
+
+/**
+ * Hands out carrots together with their physics bodies. Freed carrots keep
+ * their body, it is only switched off, so spawning carrots again neither
+ * allocates objects nor creates bodies.
+ *
+ * @author Tyler Forrester
+ */
+public class CarrotPool extends Pool<Carrot>
+{
+	// the physics shape is smaller than the carrot image
+	private static final float CARROT_SHAPE_SCALE = 0.5f;
+
+	private final World b2world;
+
+	/**
+	 * Creates an empty pool
+	 *
+	 * @param b2world
+	 *            world the carrot bodies are created in
+	 */
+	public CarrotPool(World b2world)
+	{
+		this.b2world = b2world;
+	}
+
+	/**
+	 * Creates carrots up front, so later spawns take them from the pool
+	 *
+	 * @param count
+	 *            number of carrots to have ready
+	 */
+	public void prefill(int count)
+	{
+		Array<Carrot> carrots = new Array<Carrot>(count);
+		for (int i = getFree(); i < count; i++)
+			carrots.add(obtain());
+		freeAll(carrots);
+	}
+
+	/**
+	 * Creates a carrot with a switched off dynamic body
+	 */
+	@Override
+	protected Carrot newObject()
+	{
+		Carrot carrot = new Carrot();
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyType.DynamicBody;
+		bodyDef.active = false;
+		Body body = b2world.createBody(bodyDef);
+		// the box is resized to the carrot's scale when it is spawned
+		PolygonShape polygonShape = new PolygonShape();
+		polygonShape.setAsBox(carrot.bounds.width / 2.0f, carrot.bounds.height / 2.0f);
+		// set physics attributes
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = polygonShape;
+		fixtureDef.density = 50;
+		fixtureDef.restitution = 0.5f;
+		body.createFixture(fixtureDef);
+		polygonShape.dispose();
+		carrot.body = body;
+		return carrot;
+	}
+
+	/**
+	 * Takes a carrot from the pool and puts it into the world
+	 *
+	 * @param x
+	 *            horizontal start position
+	 * @param y
+	 *            vertical start position
+	 * @param angle
+	 *            start angle in radians
+	 * @param scale
+	 *            size of the carrot
+	 * @return the carrot, moving under physics
+	 */
+	public Carrot spawn(float x, float y, float angle, float scale)
+	{
+		Carrot carrot = obtain();
+		carrot.scale.set(scale, scale);
+		carrot.position.set(x, y);
+		carrot.rotation = angle * MathUtils.radiansToDegrees;
+		carrot.storePreviousState();
+
+		Body body = carrot.body;
+		float halfWidth = carrot.bounds.width / 2.0f * scale;
+		float halfHeight = carrot.bounds.height / 2.0f * scale;
+		PolygonShape polygonShape = (PolygonShape) body.getFixtureList().first().getShape();
+		polygonShape.setAsBox(halfWidth * CARROT_SHAPE_SCALE, halfHeight * CARROT_SHAPE_SCALE);
+		body.resetMassData();
+		body.setTransform(x, y, angle);
+		body.setLinearVelocity(0, 0);
+		body.setAngularVelocity(0);
+		body.setActive(true);
+		body.setAwake(true);
+		return carrot;
+	}
+}
@@ -0,0 +1,274 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Holds every item of one kind in a level, such as all gold coins, in flat
+ * arrays instead of one game object per item. Items never move, so all that is
+ * kept per item is its position, where its animation starts and whether it has
+ * been collected. Items are sorted by tile column, so the items near the
+ * player or inside the view are one run of the arrays.
+ *
+ * @author Kevin Rutter
+ */
+public class CollectibleStore
+{
+	// score the player gets for each item collected
+	public final int score;
+	// number of items
+	public int size;
+
+	private final TextureRegion region;
+	private final Animation<TextureRegion> animation;
+	private final float itemSize;
+	private final int numColumns;
+
+	private float[] x;
+	private float[] y;
+	// animation time each item starts at
+	private float[] phase;
+	private final BitSet collected;
+	// items of column c are the ones from columnStart[c] to columnStart[c + 1]
+	private int[] columnStart;
+	// animation time shared by all items
+	private float time;
+
+	/**
+	 * Creates an empty store for items drawn with a still image
+	 *
+	 * @param region
+	 *            image of an item
+	 * @param itemSize
+	 *            width and height of an item
+	 * @param score
+	 *            score of an item
+	 * @param numColumns
+	 *            number of tile columns in the level
+	 */
+	public CollectibleStore(TextureRegion region, float itemSize, int score, int numColumns)
+	{
+		this(region, null, itemSize, score, numColumns);
+	}
+
+	/**
+	 * Creates an empty store for animated items
+	 *
+	 * @param animation
+	 *            looping animation of an item
+	 * @param itemSize
+	 *            width and height of an item
+	 * @param score
+	 *            score of an item
+	 * @param numColumns
+	 *            number of tile columns in the level
+	 */
+	public CollectibleStore(Animation<TextureRegion> animation, float itemSize, int score, int numColumns)
+	{
+		this(null, animation, itemSize, score, numColumns);
+	}
+
+	private CollectibleStore(TextureRegion region, Animation<TextureRegion> animation, float itemSize, int score,
+			int numColumns)
+	{
+		this.region = region;
+		this.animation = animation;
+		this.itemSize = itemSize;
+		this.score = score;
+		this.numColumns = Math.max(1, numColumns);
+		x = new float[16];
+		y = new float[16];
+		phase = new float[16];
+		collected = new BitSet();
+		size = 0;
+		sortColumns();
+	}
+
+	/**
+	 * Adds an item. sortColumns() has to be called once all items are added.
+	 *
+	 * @param itemX
+	 *            left edge of the item
+	 * @param itemY
+	 *            bottom edge of the item
+	 */
+	public void add(float itemX, float itemY)
+	{
+		if (size == x.length)
+		{
+			int capacity = size * 2;
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+			phase = Arrays.copyOf(phase, capacity);
+		}
+		x[size] = itemX;
+		y[size] = itemY;
+		// items do not all show the same frame of their animation
+		phase[size] = animation != null ? MathUtils.random(0.0f, 1.0f) : 0;
+		size++;
+	}
+
+	/**
+	 * Puts the items in column order, keeping the order of the items within a
+	 * column. Forgets which items have been collected.
+	 */
+	public void sortColumns()
+	{
+		columnStart = new int[numColumns + 1];
+		for (int i = 0; i < size; i++)
+			columnStart[column(x[i]) + 1]++;
+		for (int c = 0; c < numColumns; c++)
+			columnStart[c + 1] += columnStart[c];
+
+		int[] next = Arrays.copyOf(columnStart, numColumns);
+		float[] sortedX = new float[x.length];
+		float[] sortedY = new float[y.length];
+		float[] sortedPhase = new float[phase.length];
+		for (int i = 0; i < size; i++)
+		{
+			int j = next[column(x[i])]++;
+			sortedX[j] = x[i];
+			sortedY[j] = y[i];
+			sortedPhase[j] = phase[i];
+		}
+		x = sortedX;
+		y = sortedY;
+		phase = sortedPhase;
+		collected.clear();
+	}
+
+	/**
+	 * Advances the animation of every item
+	 *
+	 * @param deltaTime
+	 *            current deltaTime
+	 */
+	public void update(float deltaTime)
+	{
+		time += deltaTime;
+	}
+
+	/**
+	 * Draws the items inside the view that have not been collected
+	 *
+	 * @param batch
+	 *            Spritebatch object
+	 * @param view
+	 *            Visible part of the world
+	 * @return number of items drawn
+	 */
+	public int render(SpriteBatch batch, Rectangle view)
+	{
+		int drawn = 0;
+		int end = columnStart[column(view.x + view.width) + 1];
+		for (int i = columnStart[column(view.x - itemSize)]; i < end; i++)
+		{
+			if (collected.get(i) || !overlaps(i, view))
+				continue;
+			TextureRegion reg = region;
+			if (animation != null)
+				reg = animation.getKeyFrame(time + phase[i], true);
+			batch.draw(reg, x[i], y[i], itemSize, itemSize);
+			drawn++;
+		}
+		return drawn;
+	}
+
+	/**
+	 * Looks for an item touching a rectangle that has not been collected yet
+	 *
+	 * @param rect
+	 *            rectangle to test, such as the player's bounds
+	 * @return index of the first item found, or -1 if there is none
+	 */
+	public int findOverlap(Rectangle rect)
+	{
+		int end = columnStart[column(rect.x + rect.width) + 1];
+		for (int i = columnStart[column(rect.x - itemSize)]; i < end; i++)
+		{
+			if (!collected.get(i) && overlaps(i, rect))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the texture the items are drawn from
+	 */
+	public Texture getTexture()
+	{
+		return region != null ? region.getTexture() : animation.getKeyFrames()[0].getTexture();
+	}
+
+	/**
+	 * Returns the width and height of every item
+	 */
+	public float getItemSize()
+	{
+		return itemSize;
+	}
+
+	/**
+	 * Returns the left edge of an item
+	 */
+	public float getX(int index)
+	{
+		return x[index];
+	}
+
+	/**
+	 * Returns the bottom edge of an item
+	 */
+	public float getY(int index)
+	{
+		return y[index];
+	}
+
+	/**
+	 * Tells whether an item has been collected
+	 */
+	public boolean isCollected(int index)
+	{
+		return collected.get(index);
+	}
+
+	/**
+	 * Marks an item as collected or puts it back
+	 */
+	public void setCollected(int index, boolean value)
+	{
+		collected.set(index, value);
+	}
+
+	/**
+	 * Puts every collected item back
+	 */
+	public void resetCollected()
+	{
+		collected.clear();
+	}
+
+	/**
+	 * Tests an item against a rectangle the same way Rectangle.overlaps() does
+	 */
+	private boolean overlaps(int index, Rectangle rect)
+	{
+		return x[index] < rect.x + rect.width && x[index] + itemSize > rect.x && y[index] < rect.y + rect.height
+				&& y[index] + itemSize > rect.y;
+	}
+
+	/**
+	 * Returns the column containing a position, clamped to the level
+	 */
+	private int column(float posX)
+	{
+		return MathUtils.clamp(MathUtils.floor(posX), 0, numColumns - 1);
+	}
+}
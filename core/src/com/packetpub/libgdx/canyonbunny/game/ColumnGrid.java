@@ -0,0 +1,188 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import java.util.Comparator;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+/**
+ * Uniform grid that buckets level objects by the tile columns they cover, so
+ * collision tests only have to look at objects near the player instead of
+ * every object in the level.
+ *
+ * @author Gabe Werick
+ *
+ * @param <T>
+ *            type of object stored in the grid
+ */
+public class ColumnGrid<T>
+{
+	/**
+	 * An object in the grid, stored in every column it covers
+	 */
+	private static class Entry<T>
+	{
+		private final T obj;
+		// position in the order objects were added
+		private final int order;
+		// last query that reported this entry
+		private int stamp;
+
+		private Entry(T obj, int order)
+		{
+			this.obj = obj;
+			this.order = order;
+		}
+	}
+
+	private static final Comparator<Entry<?>> BY_ORDER = new Comparator<Entry<?>>()
+	{
+		@Override
+		public int compare(Entry<?> a, Entry<?> b)
+		{
+			return a.order < b.order ? -1 : (a.order > b.order ? 1 : 0);
+		}
+	};
+
+	private final Array<Array<Entry<T>>> columns;
+	private final IdentityMap<T, Entry<T>> entries;
+	private int nextOrder;
+	// stamp of the query running, so an object covering several columns is
+	// reported once without searching the results
+	private int queryStamp;
+	private final Array<Entry<T>> found = new Array<Entry<T>>();
+
+	/**
+	 * Creates an empty grid
+	 *
+	 * @param numColumns
+	 *            number of tile columns in the level
+	 */
+	public ColumnGrid(int numColumns)
+	{
+		// columns are created on first use, so empty stretches of long
+		// levels cost no memory
+		columns = new Array<Array<Entry<T>>>(numColumns);
+		columns.setSize(numColumns);
+		entries = new IdentityMap<T, Entry<T>>();
+		nextOrder = 0;
+	}
+
+	/**
+	 * Adds an object to every column it overlaps. Objects are returned by
+	 * query() in the order they were added.
+	 *
+	 * @param obj
+	 *            object to add
+	 * @param x
+	 *            left edge of the object
+	 * @param width
+	 *            width of the object
+	 */
+	public void add(T obj, float x, float width)
+	{
+		Entry<T> entry = new Entry<T>(obj, nextOrder++);
+		entry.stamp = queryStamp;
+		entries.put(obj, entry);
+		int first = column(x);
+		int last = column(x + width);
+		for (int i = first; i <= last; i++)
+		{
+			Array<Entry<T>> column = columns.get(i);
+			if (column == null)
+			{
+				column = new Array<Entry<T>>(false, 4);
+				columns.set(i, column);
+			}
+			column.add(entry);
+		}
+	}
+
+	/**
+	 * Removes an object from every column it was added to
+	 *
+	 * @param obj
+	 *            object to remove
+	 * @param x
+	 *            left edge the object was added with
+	 * @param width
+	 *            width the object was added with
+	 */
+	public void remove(T obj, float x, float width)
+	{
+		Entry<T> entry = entries.remove(obj);
+		if (entry == null)
+			return;
+		int first = column(x);
+		int last = column(x + width);
+		for (int i = first; i <= last; i++)
+		{
+			Array<Entry<T>> column = columns.get(i);
+			if (column != null)
+				column.removeValue(entry, true);
+		}
+	}
+
+	/**
+	 * Collects every object stored in the columns overlapped by the given span.
+	 * Each object is reported once, in the order it was added to the grid.
+	 *
+	 * @param x
+	 *            left edge of the span
+	 * @param width
+	 *            width of the span
+	 * @param out
+	 *            array the results are written to, cleared first
+	 * @return out
+	 */
+	public Array<T> query(float x, float width, Array<T> out)
+	{
+		out.clear();
+		queryStamp++;
+		int first = column(x);
+		int last = column(x + width);
+		for (int i = first; i <= last; i++)
+		{
+			Array<Entry<T>> column = columns.get(i);
+			if (column == null)
+				continue;
+			for (int j = 0; j < column.size; j++)
+			{
+				Entry<T> entry = column.get(j);
+				if (entry.stamp == queryStamp)
+					continue;
+				entry.stamp = queryStamp;
+				found.add(entry);
+			}
+		}
+		// sorted once at the end instead of inserting each object in place
+		found.sort(BY_ORDER);
+		for (int i = 0; i < found.size; i++)
+			out.add(found.get(i).obj);
+		found.clear();
+		return out;
+	}
+
+	/**
+	 * Removes every object from the grid
+	 */
+	public void clear()
+	{
+		for (Array<Entry<T>> column : columns)
+		{
+			if (column != null)
+				column.clear();
+		}
+		entries.clear();
+		nextOrder = 0;
+	}
+
+	/**
+	 * Returns the column containing x, clamped to the grid
+	 */
+	private int column(float x)
+	{
+		return MathUtils.clamp(MathUtils.floor(x), 0, columns.size - 1);
+	}
+}
@@ -1,17 +1,19 @@
 package com.packetpub.libgdx.canyonbunny.game;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
 import com.packetpub.libgdx.canyonbunny.game.objects.AbstractGameObject;
 import com.packetpub.libgdx.canyonbunny.game.objects.Clouds;
 import com.packetpub.libgdx.canyonbunny.game.objects.Mountains;
 import com.packetpub.libgdx.canyonbunny.game.objects.Rock;
 import com.packetpub.libgdx.canyonbunny.game.objects.WaterOverlay;
 import com.packetpub.libgdx.canyonbunny.game.objects.BunnyHead;
-import com.packetpub.libgdx.canyonbunny.game.objects.Feather;
-import com.packetpub.libgdx.canyonbunny.game.objects.GoldCoin;
 import com.packetpub.libgdx.canyonbunny.game.objects.Carrot;
 import com.packetpub.libgdx.canyonbunny.game.objects.Goal;
 
@@ -21,6 +23,8 @@ import com.packetpub.libgdx.canyonbunny.game.objects.Goal;
 public class Level
 {
 	public static final String TAG = Level.class.getName();
+	// width and height of gold coins and feathers
+	private static final float ITEM_SIZE = 0.5f;
 	public Array<Carrot> carrots;
 	public Goal goal;
 
@@ -58,8 +62,100 @@ public class Level
 	// objects
 	public Array<Rock> rocks;
 	public BunnyHead bunnyHead;
-	public Array<GoldCoin> goldcoins;
-	public Array<Feather> feathers;
+	public CollectibleStore goldcoins;
+	public CollectibleStore feathers;
+
+	// broadphase for collision tests, keyed by tile column
+	public ColumnGrid<Rock> rockGrid;
+
+	// rocks found in the view by the last render() call
+	private Array<Rock> visibleRocks = new Array<Rock>();
+
+	// rocks near the camera, the only ones updated and moved by physics
+	private Array<Rock> activeRocks = new Array<Rock>();
+	private Array<Rock> rocksInRange = new Array<Rock>();
+	// seconds of simulation since the level was created
+	private float time;
+
+	// number of objects drawn and skipped by the last render() call
+	public int drawnObjects;
+	public int culledObjects;
+	// number of texture or blend changes between the draws of the last
+	// render() call
+	public int textureSwitches;
+
+	// layers of the render queue, back to front
+	private static final int LAYER_BACKGROUND = 0;
+	private static final int LAYER_ROCKS = 1;
+	private static final int LAYER_ITEMS = 2;
+	private static final int LAYER_PLAYER = 3;
+	private static final int LAYER_FOREGROUND = 4;
+	// the goal stands behind the rocks and the dust is drawn over the bunny,
+	// objects of the other layers do not overlap each other
+	private final RenderQueue renderQueue = new RenderQueue(false, false, true, false, true);
+
+	// view and cached geometry of the render() call being drawn
+	private Rectangle renderView;
+	private StaticGeometry renderStaticGeometry;
+
+	private final RenderQueue.Command mountainsCommand = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			if (renderStaticGeometry != null)
+				renderStaticGeometry.renderMountains(batch, renderView);
+			else
+				mountains.render(batch, renderView);
+		}
+	};
+
+	private final RenderQueue.Command goldCoinsCommand = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			int drawn = goldcoins.render(batch, renderView);
+			drawnObjects += drawn;
+			culledObjects += goldcoins.size - drawn;
+		}
+	};
+
+	private final RenderQueue.Command feathersCommand = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			int drawn = feathers.render(batch, renderView);
+			drawnObjects += drawn;
+			culledObjects += feathers.size - drawn;
+		}
+	};
+
+	private final RenderQueue.Command dustCommand = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			bunnyHead.renderParticles(batch);
+		}
+	};
+
+	private final RenderQueue.Command cloudsCommand = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			int drawn = clouds.render(batch, renderView);
+			drawnObjects += drawn;
+			culledObjects += clouds.getCloudCount() - drawn;
+		}
+	};
+
+	// live chunks of long levels, null when the whole level is live
+	public LevelChunks chunks;
+	private LevelData data;
+	private int builtRocks;
 
 	// decoration
 	public Clouds clouds;
@@ -77,173 +173,394 @@ public class Level
 		init(filename);
 	}
 
+	/**
+	 * Constructor for an already loaded level layout, creates every object
+	 * right away
+	 * 
+	 * @param data
+	 *            layout of the level
+	 */
+	public Level(LevelData data)
+	{
+		init(data);
+		build(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Constructor used by deferred(), leaves the level uninitialized
+	 */
+	private Level()
+	{
+	}
+
+	/**
+	 * Creates a level whose rocks and items are created by later calls to
+	 * build(), so the work can be spread across frames
+	 * 
+	 * @param data
+	 *            layout of the level
+	 * @return the level, not yet built
+	 */
+	static Level deferred(LevelData data)
+	{
+		Level level = new Level();
+		level.init(data);
+		return level;
+	}
+
 	/**
 	 * Takes in the filename of the level to be loaded then read the file
 	 */
 	private void init(String filename)
 	{
+		// load the level layout, compiled or decoded from the level image
+		init(LevelData.load(filename));
+		build(Integer.MAX_VALUE);
+		Gdx.app.debug(TAG, "level '" + filename + "' loaded");
+	}
+
+	/**
+	 * Sets up a level layout. Rocks of short levels are created by build(), the
+	 * ones of long levels are streamed in by chunks. Items take little memory
+	 * and are all added right away.
+	 */
+	private void init(LevelData data)
+	{
+		this.data = data;
+		// report pixels that did not match any block type
+		for (int i = 0; i < data.unknownPixels.size; i += 3)
+		{
+			int pixelX = data.unknownPixels.get(i);
+			int pixelY = data.unknownPixels.get(i + 1);
+			int currentPixel = data.unknownPixels.get(i + 2);
+			int r = 0xff & (currentPixel >>> 24); // red color channel
+			int g = 0xff & (currentPixel >>> 16); // green color channel
+			int b = 0xff & (currentPixel >>> 8); // blue color channel
+			int a = 0xff & currentPixel; // alpha channel
+			Gdx.app.error(TAG, "Unknown object at x<" + pixelX + "> y<" + pixelY + ">: r<" + r + "> g<" + g
+					+ "> b<" + b + "> a<" + a + ">");
+		}
+
 		// player character
 		bunnyHead = null;
 		// objects
 		rocks = new Array<Rock>();
-		goldcoins = new Array<GoldCoin>();
-		feathers = new Array<Feather>();
 		carrots = new Array<Carrot>();
+		rockGrid = new ColumnGrid<Rock>(data.width);
+		builtRocks = 0;
+		activeRocks.clear();
+		time = 0;
+
+		// items
+		goldcoins = new CollectibleStore(Assets.instance.goldCoin.animGoldCoin, ITEM_SIZE, 100, data.width);
+		feathers = new CollectibleStore(Assets.instance.feather.feather, ITEM_SIZE, 250, data.width);
+		addItems(goldcoins, data.goldCoins);
+		addItems(feathers, data.feathers);
 
-		// load image file that represents the level data
-		Pixmap pixmap = new Pixmap(Gdx.files.internal(filename));
-		// scan pixels from top-left to bottom-right
-		int lastPixel = -1;
-		for (int pixelY = 0; pixelY < pixmap.getHeight(); pixelY++)
+		// long levels: rocks are created chunk by chunk as the camera moves
+		if (data.width >= Constants.LEVEL_STREAMING_MIN_WIDTH)
+			chunks = new LevelChunks(this, data);
+		else
+			chunks = null;
+
+		// player spawn point
+		if (data.hasSpawnPoint)
 		{
-			for (int pixelX = 0; pixelX < pixmap.getWidth(); pixelX++)
-			{
-				AbstractGameObject obj = null;
-				float offsetHeight = 0;
-				// height grows from bottom to top
-				float baseHeight = pixmap.getHeight() - pixelY;
-				// get color of current pixel as 32-bit RGBA value
-				int currentPixel = pixmap.getPixel(pixelX, pixelY);
-				// find matching color value to identify block type (x,y)
-				// point and create the corresponding game object if there is a match
-
-				// empty space
-				if (BLOCK_TYPE.EMPTY.sameColor(currentPixel))
-				{
-					// do nothing
-				}
-
-				// rock
-				else if (BLOCK_TYPE.ROCK.sameColor(currentPixel))
-				{
-					if (lastPixel != currentPixel)
-					{
-						obj = new Rock();
-						float heightIncreaseFactor = 0.25f;
-						offsetHeight = -2.5f;
-						obj.position.set(pixelX, baseHeight * obj.dimension.y * heightIncreaseFactor + offsetHeight);
-						rocks.add((Rock) obj);
-					} else
-					{
-						rocks.get(rocks.size - 1).increaseLength(1);
-					}
-				}
-
-				// player spawn point
-				else if (BLOCK_TYPE.PLAYER_SPAWNPOINT.sameColor(currentPixel))
-				{
-					obj = new BunnyHead();
-					offsetHeight = -3.0f;
-					obj.position.set(pixelX, baseHeight * obj.dimension.y + offsetHeight);
-					bunnyHead = (BunnyHead) obj;
-				}
-
-				// feather
-				else if (BLOCK_TYPE.ITEM_FEATHER.sameColor(currentPixel))
-				{
-					obj = new Feather();
-					offsetHeight = -1.5f;
-					obj.position.set(pixelX, baseHeight * obj.dimension.y + offsetHeight);
-					feathers.add((Feather) obj);
-				}
-				// gold coin
-				else if (BLOCK_TYPE.ITEM_GOLD_COIN.sameColor(currentPixel))
-				{
-					obj = new GoldCoin();
-					offsetHeight = -1.5f;
-					obj.position.set(pixelX, baseHeight * obj.dimension.y + offsetHeight);
-					goldcoins.add((GoldCoin) obj);
-				}
-				
-				//goal
-				else if (BLOCK_TYPE.GOAL.sameColor(currentPixel))
-				{
-					obj = new Goal();
-					offsetHeight = -7.0f;
-					obj.position.set(pixelX, baseHeight + offsetHeight);
-					goal = (Goal)obj;
-				}
-
-				// unknown object/pixel color
-				else
-				{
-					int r = 0xff & (currentPixel >>> 24); // red color channel
-					int g = 0xff & (currentPixel >>> 16); // green color channel
-					int b = 0xff & (currentPixel >>> 8); // blue color channel
-					int a = 0xff & currentPixel; // alpha channel
-					Gdx.app.error(TAG, "Unknown object at x<" + pixelX + "> y<" + pixelY + ">: r<" + r + "> g<" + g
-							+ "> b<" + b + "> a<" + a + ">");
-				}
-				lastPixel = currentPixel;
-			}
+			bunnyHead = new BunnyHead();
+			float offsetHeight = -3.0f;
+			float baseHeight = data.height - data.spawnY;
+			bunnyHead.position.set(data.spawnX, baseHeight * bunnyHead.dimension.y + offsetHeight);
 		}
+
+		// goal
+		if (data.hasGoal)
+		{
+			goal = new Goal();
+			float offsetHeight = -7.0f;
+			float baseHeight = data.height - data.goalY;
+			goal.position.set(data.goalX, baseHeight + offsetHeight);
+		}
+
 		// decorations
-		clouds = new Clouds(pixmap.getWidth());
+		clouds = new Clouds(data.width);
 		clouds.position.set(0, 2);
-		mountains = new Mountains(pixmap.getWidth());
+		mountains = new Mountains(data.width);
 		mountains.position.set(-1, -1);
-		waterOverlay = new WaterOverlay(pixmap.getWidth());
+		waterOverlay = new WaterOverlay(data.width);
 		waterOverlay.position.set(0, -3.75f);
+	}
 
-		// free memory
-		pixmap.dispose();
-		Gdx.app.debug(TAG, "level '" + filename + "' loaded");
+	/**
+	 * Creates the next rocks of the level layout
+	 * 
+	 * @param maxObjects
+	 *            how many objects may be created by this call
+	 * @return true when every object has been created
+	 */
+	boolean build(int maxObjects)
+	{
+		if (chunks != null)
+			return true;
+		for (; maxObjects > 0 && builtRocks < data.rocks.size / 3; maxObjects--)
+			addRock(createRock(builtRocks++));
+		return getBuildProgress() >= 1;
+	}
+
+	/**
+	 * Returns how much of the level has been created by build(), from 0 to 1
+	 */
+	float getBuildProgress()
+	{
+		if (chunks != null)
+			return 1;
+		int total = data.rocks.size / 3;
+		if (total == 0)
+			return 1;
+		return builtRocks / (float) total;
+	}
+
+	/**
+	 * Returns the layout this level was created from
+	 */
+	public LevelData getData()
+	{
+		return data;
+	}
+
+	/**
+	 * Creates the rock for a rock run of the level layout
+	 *
+	 * @param index
+	 *            index of the rock run
+	 * @return the new rock
+	 */
+	Rock createRock(int index)
+	{
+		Rock rock = new Rock();
+		// height grows from bottom to top
+		float baseHeight = data.height - data.rocks.get(index * 3 + 1);
+		float heightIncreaseFactor = 0.25f;
+		float offsetHeight = -2.5f;
+		rock.position.set(data.rocks.get(index * 3), baseHeight * rock.dimension.y * heightIncreaseFactor + offsetHeight);
+		rock.increaseLength(data.rocks.get(index * 3 + 2) - 1);
+		return rock;
+	}
+
+	/**
+	 * Adds the items of one kind from the level layout to their store
+	 *
+	 * @param store
+	 *            store the items are added to
+	 * @param items
+	 *            items of the layout as (x, y) pairs
+	 */
+	private void addItems(CollectibleStore store, IntArray items)
+	{
+		float offsetHeight = -1.5f;
+		for (int i = 0; i < items.size; i += 2)
+		{
+			float baseHeight = data.height - items.get(i + 1);
+			store.add(items.get(i), baseHeight * ITEM_SIZE + offsetHeight);
+		}
+		store.sortColumns();
 	}
 
 	/**
-	 * Handles rendering of objects
+	 * Adds a rock to the level and its collision grid. It stays inactive until
+	 * updateActiveRocks() finds it near the camera.
+	 */
+	void addRock(Rock rock)
+	{
+		rocks.add(rock);
+		rockGrid.add(rock, rock.position.x, rock.bounds.width);
+		rock.deactivate(time);
+	}
+
+	/**
+	 * Removes a rock from the level and its collision grid
+	 */
+	void removeRock(Rock rock)
+	{
+		rocks.removeValue(rock, true);
+		rockGrid.remove(rock, rock.position.x, rock.bounds.width);
+		activeRocks.removeValue(rock, true);
+	}
+
+	/**
+	 * Activates the rocks near a position and deactivates the ones that moved
+	 * away from it, so only rocks that can be seen float and have a live body
+	 * 
+	 * @param centerX
+	 *            horizontal position to activate around, usually the camera
+	 * @param distance
+	 *            how far to either side rocks are active
+	 */
+	public void updateActiveRocks(float centerX, float distance)
+	{
+		float minX = centerX - distance;
+		float maxX = centerX + distance;
+		for (int i = activeRocks.size - 1; i >= 0; i--)
+		{
+			Rock rock = activeRocks.get(i);
+			if (!isInRange(rock, minX, maxX))
+			{
+				rock.deactivate(time);
+				activeRocks.removeIndex(i);
+			}
+		}
+		// the grid works in whole columns, the same test as above keeps a
+		// rock from being switched on and off again every step
+		rockGrid.query(minX, distance * 2, rocksInRange);
+		for (Rock rock : rocksInRange)
+		{
+			if (!rock.isActive() && isInRange(rock, minX, maxX))
+			{
+				rock.activate(time);
+				activeRocks.add(rock);
+			}
+		}
+	}
+
+	/**
+	 * Tells whether any part of a rock is between two horizontal positions
+	 */
+	private static boolean isInRange(Rock rock, float minX, float maxX)
+	{
+		return rock.position.x <= maxX && rock.position.x + rock.bounds.width >= minX;
+	}
+
+	/**
+	 * Handles rendering of objects. Only objects inside the view are drawn, the
+	 * rocks are looked up in the grid and the items in their stores, so
+	 * off-screen ones are not even visited. Everything goes through the render
+	 * queue, which groups draws with the same texture where the order does not
+	 * matter.
 	 * 
 	 * @param batch
 	 *            Spritebatch object
+	 * @param view
+	 *            Visible part of the world
+	 * @param staticGeometry
+	 *            Cached mountains of this level. Null to draw them piece by
+	 *            piece.
 	 */
-	public void render(SpriteBatch batch)
+	public void render(SpriteBatch batch, Rectangle view, StaticGeometry staticGeometry)
 	{
-		// Draw Mountains
-		mountains.render(batch);
-		// Draw Goal
-		goal.render(batch);
+		drawnObjects = 0;
+		culledObjects = 0;
+		renderView = view;
+		renderStaticGeometry = staticGeometry;
+		Texture objectsTexture = Assets.instance.objectsTexture;
 
-		// Draw Rocks
-		for (Rock rock : rocks)
-			rock.render(batch);
+		// Mountains
+		renderQueue.add(LAYER_BACKGROUND,
+				staticGeometry != null ? staticGeometry.getMountainTexture() : objectsTexture, false, mountainsCommand);
 
-		// Draw Gold Coins
-		for (GoldCoin goldCoin : goldcoins)
-			goldCoin.render(batch);
+		// Goal, behind the rocks
+		queueIfVisible(LAYER_ROCKS, goal, view);
 
-		// Draw Rocks
-		for (Feather feather : feathers)
-			feather.render(batch);
-		
-		//Draw Carrots
-		for(Carrot carrot :carrots)
-			carrot.render(batch);
+		// Rocks
+		rockGrid.query(view.x, view.width, visibleRocks);
+		for (Rock rock : visibleRocks)
+			queueIfVisible(LAYER_ROCKS, rock, view);
+		culledObjects += rocks.size - visibleRocks.size;
 
-		// Draw player Character
-		bunnyHead.render(batch);
+		// Gold coins, feathers and carrots
+		renderQueue.add(LAYER_ITEMS, goldcoins.getTexture(), false, goldCoinsCommand);
+		renderQueue.add(LAYER_ITEMS, feathers.getTexture(), false, feathersCommand);
+		for (Carrot carrot : carrots)
+			queueIfVisible(LAYER_ITEMS, carrot, view);
 
-		// Draw Water overlay
-		waterOverlay.render(batch);
+		// Player character, always followed by the camera, with its dust on top
+		renderQueue.add(LAYER_PLAYER, objectsTexture, false, bunnyHead);
+		drawnObjects++;
+		ParticleEmitter dust = bunnyHead.dustParticles.getEmitters().first();
+		renderQueue.add(LAYER_PLAYER, dust.getSprites().first().getTexture(), dust.isAdditive(), dustCommand);
 
-		// Draw Clouds
-		clouds.render(batch);
+		// Water overlay, spans the whole level, and clouds
+		renderQueue.add(LAYER_FOREGROUND, objectsTexture, false, waterOverlay);
+		drawnObjects++;
+		renderQueue.add(LAYER_FOREGROUND, objectsTexture, false, cloudsCommand);
+
+		renderQueue.render(batch);
+		textureSwitches = renderQueue.textureSwitches;
+	}
+
+	/**
+	 * Queues an object if it is inside the view and counts it as drawn or
+	 * culled
+	 */
+	private void queueIfVisible(int layer, AbstractGameObject obj, Rectangle view)
+	{
+		if (obj.isVisible(view))
+		{
+			renderQueue.add(layer, Assets.instance.objectsTexture, false, obj);
+			drawnObjects++;
+		} else
+			culledObjects++;
+	}
+
+	/**
+	 * Remembers the state of moving objects at the start of a simulation step
+	 */
+	public void storePreviousState()
+	{
+		bunnyHead.storePreviousState();
+		for (Rock rock : activeRocks)
+			rock.storePreviousState();
+		for (Carrot carrot : carrots)
+			carrot.storePreviousState();
+		mountains.storePreviousState();
+		clouds.storePreviousState();
+	}
+
+	/**
+	 * Moves moving objects in between their previous and current state for
+	 * drawing
+	 * 
+	 * @param alpha
+	 *            how far to go from the previous to the current state, 0 to 1
+	 */
+	public void beginInterpolation(float alpha)
+	{
+		bunnyHead.beginInterpolation(alpha);
+		for (Rock rock : activeRocks)
+			rock.beginInterpolation(alpha);
+		for (Carrot carrot : carrots)
+			carrot.beginInterpolation(alpha);
+		mountains.beginInterpolation(alpha);
+		clouds.beginInterpolation(alpha);
+	}
+
+	/**
+	 * Puts moving objects back into their current state after drawing
+	 */
+	public void endInterpolation()
+	{
+		bunnyHead.endInterpolation();
+		for (Rock rock : activeRocks)
+			rock.endInterpolation();
+		for (Carrot carrot : carrots)
+			carrot.endInterpolation();
+		mountains.endInterpolation();
+		clouds.endInterpolation();
 	}
 
 	/**
-	 * Calls update method of each object in this class
+	 * Calls update method of each object in this class. Inactive rocks are
+	 * skipped.
 	 * 
 	 * @param deltaTime
 	 *            current deltaTime
 	 */
 	public void update(float deltaTime)
 	{
+		time += deltaTime;
 		bunnyHead.update(deltaTime);
-		for (Rock rock : rocks)
+		for (Rock rock : activeRocks)
 			rock.update(deltaTime);
-		for (GoldCoin goldCoin : goldcoins)
-			goldCoin.update(deltaTime);
-		for (Feather feather : feathers)
-			feather.update(deltaTime);
+		goldcoins.update(deltaTime);
+		feathers.update(deltaTime);
 		for(Carrot carrot :carrots)
 			carrot.update(deltaTime);
 		clouds.update(deltaTime);
@@ -0,0 +1,162 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.packetpub.libgdx.canyonbunny.game.objects.Rock;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
+
+/**
+ * Streams the rocks of a long level in fixed-width column chunks. Only chunks
+ * near the camera have live rocks, so the number of rocks and physics bodies
+ * stays the same no matter how long the level is. Items are not streamed,
+ * they are kept in the level's CollectibleStores.
+ *
+ * @author Gabe Werick
+ */
+public class LevelChunks
+{
+	/**
+	 * Gets told when rocks come and go, so their physics bodies can follow
+	 */
+	public interface Listener
+	{
+		/**
+		 * Called after a rock was added to the level
+		 */
+		public void rockAdded(Rock rock);
+
+		/**
+		 * Called after a rock was removed from the level
+		 */
+		public void rockRemoved(Rock rock);
+	}
+
+	/**
+	 * A run of columns and the rocks that start in it
+	 */
+	private class Chunk
+	{
+		// indices into the level layout
+		private final IntArray rocks = new IntArray();
+		// right edge of the widest rock starting in this chunk
+		private float maxX;
+		private boolean live;
+
+		// rocks while the chunk is live, same order as the indices
+		private final Array<Rock> liveRocks = new Array<Rock>();
+	}
+
+	private final Level level;
+	private final Array<Chunk> chunks;
+	private Listener listener;
+	private int lastCenterColumn;
+
+	public int liveChunks;
+
+	/**
+	 * Splits a level layout into chunks. No chunk is live until update() is
+	 * called.
+	 *
+	 * @param level
+	 *            level the objects are added to
+	 * @param data
+	 *            layout of the level
+	 */
+	public LevelChunks(Level level, LevelData data)
+	{
+		this.level = level;
+		int numChunks = MathUtils.ceil(data.width / (float) Constants.LEVEL_CHUNK_WIDTH);
+		chunks = new Array<Chunk>(numChunks);
+		for (int i = 0; i < numChunks; i++)
+			chunks.add(new Chunk());
+
+		for (int i = 0; i < data.rocks.size / 3; i++)
+		{
+			int x = data.rocks.get(i * 3);
+			Chunk chunk = chunkAt(x);
+			chunk.rocks.add(i);
+			chunk.maxX = Math.max(chunk.maxX, x + data.rocks.get(i * 3 + 2));
+		}
+
+		lastCenterColumn = Integer.MIN_VALUE;
+		liveChunks = 0;
+	}
+
+	/**
+	 * Sets who gets told about rocks being added and removed
+	 */
+	public void setListener(Listener listener)
+	{
+		this.listener = listener;
+	}
+
+	/**
+	 * Makes the chunks within the streaming distance of a position live and
+	 * releases the ones that moved out of it
+	 *
+	 * @param centerX
+	 *            horizontal position to stream around, usually the camera
+	 */
+	public void update(float centerX)
+	{
+		int centerColumn = MathUtils.floor(centerX);
+		if (centerColumn == lastCenterColumn)
+			return;
+		lastCenterColumn = centerColumn;
+
+		float minX = centerX - Constants.LEVEL_STREAMING_DISTANCE;
+		float maxX = centerX + Constants.LEVEL_STREAMING_DISTANCE;
+		for (int i = 0; i < chunks.size; i++)
+		{
+			Chunk chunk = chunks.get(i);
+			boolean inRange = i * Constants.LEVEL_CHUNK_WIDTH <= maxX && chunk.maxX >= minX;
+			if (inRange && !chunk.live)
+				load(chunk);
+			else if (!inRange && chunk.live)
+				unload(chunk);
+		}
+	}
+
+	/**
+	 * Creates the rocks of a chunk
+	 */
+	private void load(Chunk chunk)
+	{
+		for (int i = 0; i < chunk.rocks.size; i++)
+		{
+			Rock rock = level.createRock(chunk.rocks.get(i));
+			chunk.liveRocks.add(rock);
+			level.addRock(rock);
+			if (listener != null)
+				listener.rockAdded(rock);
+		}
+		chunk.live = true;
+		liveChunks++;
+	}
+
+	/**
+	 * Drops the rocks of a chunk
+	 */
+	private void unload(Chunk chunk)
+	{
+		for (int i = 0; i < chunk.liveRocks.size; i++)
+		{
+			Rock rock = chunk.liveRocks.get(i);
+			level.removeRock(rock);
+			if (listener != null)
+				listener.rockRemoved(rock);
+		}
+		chunk.liveRocks.clear();
+		chunk.live = false;
+		liveChunks--;
+	}
+
+	/**
+	 * Returns the chunk holding a column
+	 */
+	private Chunk chunkAt(int column)
+	{
+		return chunks.get(MathUtils.clamp(column / Constants.LEVEL_CHUNK_WIDTH, 0, chunks.size - 1));
+	}
+}
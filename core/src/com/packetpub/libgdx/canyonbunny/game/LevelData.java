@@ -0,0 +1,311 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.packetpub.libgdx.canyonbunny.game.Level.BLOCK_TYPE;
+
+/**
+ * Plain description of a level layout, in pixel coordinates of the level
+ * image. Can be decoded from the level image or read from the compiled binary
+ * level format written by the desktop level compiler.
+ *
+ * @author Gabe Werick
+ */
+public class LevelData
+{
+	private static final String TAG = LevelData.class.getName();
+
+	// Extension of compiled level files
+	public static final String COMPILED_EXTENSION = ".lvl";
+
+	// "CBLV" in ASCII
+	private static final int MAGIC = 0x43424c56;
+	private static final int VERSION = 2;
+
+	public int width;
+	public int height;
+
+	// checksum of the level image the layout was decoded from, written to
+	// compiled levels to tell when they are out of date
+	public int sourceChecksum;
+
+	// rock runs stored as (x, y, length) triples
+	public final IntArray rocks = new IntArray();
+	// items stored as (x, y) pairs
+	public final IntArray goldCoins = new IntArray();
+	public final IntArray feathers = new IntArray();
+
+	public boolean hasSpawnPoint;
+	public int spawnX;
+	public int spawnY;
+	public boolean hasGoal;
+	public int goalX;
+	public int goalY;
+
+	// pixels that did not match any block type, stored as (x, y, color)
+	// triples. Only filled when decoding an image.
+	public final IntArray unknownPixels = new IntArray();
+
+	/**
+	 * Loads the layout for the given level image. Uses the compiled level next
+	 * to the image if there is one and it was compiled from the image as it
+	 * is now, otherwise decodes the image itself.
+	 *
+	 * @param filename
+	 *            internal path of the level image
+	 * @return the level layout
+	 */
+	public static LevelData load(String filename)
+	{
+		FileHandle image = Gdx.files.internal(filename);
+		byte[] imageBytes = image.readBytes();
+		int checksum = checksum(imageBytes);
+
+		FileHandle compiled = Gdx.files.internal(compiledFileName(filename));
+		if (compiled.exists())
+		{
+			ByteBuffer buffer = ByteBuffer.wrap(compiled.readBytes());
+			if (isCompiledFrom(buffer, checksum))
+				return read(buffer);
+			Gdx.app.log(TAG, "'" + compiled.path() + "' is out of date, decoding '" + filename + "' instead");
+		}
+
+		Pixmap pixmap = new Pixmap(imageBytes, 0, imageBytes.length);
+		LevelData data = decode(pixmap);
+		pixmap.dispose();
+		data.sourceChecksum = checksum;
+		return data;
+	}
+
+	/**
+	 * Returns the checksum of a level image file stored in compiled levels
+	 *
+	 * @param imageBytes
+	 *            content of the level image file
+	 */
+	public static int checksum(byte[] imageBytes)
+	{
+		CRC32 crc = new CRC32();
+		crc.update(imageBytes, 0, imageBytes.length);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Tells whether a compiled level is in the current format and was compiled
+	 * from the image with the given checksum. Does not move the buffer.
+	 */
+	private static boolean isCompiledFrom(ByteBuffer buffer, int checksum)
+	{
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		if (buffer.remaining() < 12)
+			return false;
+		int start = buffer.position();
+		return buffer.getInt(start) == MAGIC && buffer.getInt(start + 4) == VERSION
+				&& buffer.getInt(start + 8) == checksum;
+	}
+
+	/**
+	 * Returns the path of the compiled level belonging to a level image
+	 */
+	public static String compiledFileName(String filename)
+	{
+		int dot = filename.lastIndexOf('.');
+		return (dot < 0 ? filename : filename.substring(0, dot)) + COMPILED_EXTENSION;
+	}
+
+	/**
+	 * Decodes the layout from a level pixmap
+	 */
+	public static LevelData decode(Pixmap pixmap)
+	{
+		int width = pixmap.getWidth();
+		int height = pixmap.getHeight();
+		int[] pixels = new int[width * height];
+		if (pixmap.getFormat() == Format.RGBA8888)
+		{
+			// pixel bytes are already r, g, b, a: read them as big endian ints
+			pixmap.getPixels().duplicate().order(ByteOrder.BIG_ENDIAN).asIntBuffer().get(pixels);
+		} else
+		{
+			for (int pixelY = 0; pixelY < height; pixelY++)
+				for (int pixelX = 0; pixelX < width; pixelX++)
+					pixels[pixelY * width + pixelX] = pixmap.getPixel(pixelX, pixelY);
+		}
+		return decode(width, height, pixels);
+	}
+
+	/**
+	 * Decodes the layout from level image pixels
+	 *
+	 * @param width
+	 *            width of the image
+	 * @param height
+	 *            height of the image
+	 * @param pixels
+	 *            RGBA8888 pixels, row by row from the top-left
+	 * @return the level layout
+	 */
+	public static LevelData decode(int width, int height, int[] pixels)
+	{
+		LevelData data = new LevelData();
+		data.width = width;
+		data.height = height;
+		// scan pixels from top-left to bottom-right
+		int lastPixel = -1;
+		for (int pixelY = 0; pixelY < height; pixelY++)
+		{
+			for (int pixelX = 0; pixelX < width; pixelX++)
+			{
+				int currentPixel = pixels[pixelY * width + pixelX];
+
+				// empty space
+				if (BLOCK_TYPE.EMPTY.sameColor(currentPixel))
+				{
+					// do nothing
+				}
+
+				// rock
+				else if (BLOCK_TYPE.ROCK.sameColor(currentPixel))
+				{
+					if (lastPixel != currentPixel)
+					{
+						data.rocks.add(pixelX);
+						data.rocks.add(pixelY);
+						data.rocks.add(1);
+					} else
+					{
+						data.rocks.items[data.rocks.size - 1]++;
+					}
+				}
+
+				// player spawn point
+				else if (BLOCK_TYPE.PLAYER_SPAWNPOINT.sameColor(currentPixel))
+				{
+					data.hasSpawnPoint = true;
+					data.spawnX = pixelX;
+					data.spawnY = pixelY;
+				}
+
+				// feather
+				else if (BLOCK_TYPE.ITEM_FEATHER.sameColor(currentPixel))
+				{
+					data.feathers.add(pixelX);
+					data.feathers.add(pixelY);
+				}
+
+				// gold coin
+				else if (BLOCK_TYPE.ITEM_GOLD_COIN.sameColor(currentPixel))
+				{
+					data.goldCoins.add(pixelX);
+					data.goldCoins.add(pixelY);
+				}
+
+				// goal
+				else if (BLOCK_TYPE.GOAL.sameColor(currentPixel))
+				{
+					data.hasGoal = true;
+					data.goalX = pixelX;
+					data.goalY = pixelY;
+				}
+
+				// unknown object/pixel color
+				else
+				{
+					data.unknownPixels.add(pixelX);
+					data.unknownPixels.add(pixelY);
+					data.unknownPixels.add(currentPixel);
+				}
+				lastPixel = currentPixel;
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Reads a layout in the compiled binary level format
+	 *
+	 * @param buffer
+	 *            buffer positioned at the start of the level
+	 * @return the level layout
+	 */
+	public static LevelData read(ByteBuffer buffer)
+	{
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		if (buffer.getInt() != MAGIC)
+			throw new GdxRuntimeException("Not a compiled level");
+		int version = buffer.getInt();
+		if (version != VERSION)
+			throw new GdxRuntimeException("Unsupported compiled level version: " + version);
+
+		LevelData data = new LevelData();
+		data.sourceChecksum = buffer.getInt();
+		data.width = buffer.getInt();
+		data.height = buffer.getInt();
+		data.hasSpawnPoint = buffer.get() != 0;
+		data.spawnX = buffer.getInt();
+		data.spawnY = buffer.getInt();
+		data.hasGoal = buffer.get() != 0;
+		data.goalX = buffer.getInt();
+		data.goalY = buffer.getInt();
+		readInts(buffer, data.rocks, 3);
+		readInts(buffer, data.goldCoins, 2);
+		readInts(buffer, data.feathers, 2);
+		return data;
+	}
+
+	/**
+	 * Writes this layout in the compiled binary level format
+	 *
+	 * @return buffer holding the compiled level, ready to be read
+	 */
+	public ByteBuffer write()
+	{
+		int size = 5 * 4 + 2 * (1 + 2 * 4) + 3 * 4 + 4 * (rocks.size + goldCoins.size + feathers.size);
+		ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.BIG_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(sourceChecksum);
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.put((byte) (hasSpawnPoint ? 1 : 0));
+		buffer.putInt(spawnX);
+		buffer.putInt(spawnY);
+		buffer.put((byte) (hasGoal ? 1 : 0));
+		buffer.putInt(goalX);
+		buffer.putInt(goalY);
+		writeInts(buffer, rocks, 3);
+		writeInts(buffer, goldCoins, 2);
+		writeInts(buffer, feathers, 2);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Reads a record count followed by the records into ints
+	 */
+	private static void readInts(ByteBuffer buffer, IntArray ints, int recordSize)
+	{
+		int count = buffer.getInt() * recordSize;
+		ints.ensureCapacity(count);
+		for (int i = 0; i < count; i++)
+			ints.add(buffer.getInt());
+	}
+
+	/**
+	 * Writes a record count followed by the records in ints
+	 */
+	private static void writeInts(ByteBuffer buffer, IntArray ints, int recordSize)
+	{
+		buffer.putInt(ints.size / recordSize);
+		for (int i = 0; i < ints.size; i++)
+			buffer.putInt(ints.get(i));
+	}
+}
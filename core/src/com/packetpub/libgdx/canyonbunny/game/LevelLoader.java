@@ -0,0 +1,99 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
+
+/**
+ * Loads a level without stalling the render thread. The level layout is read
+ * on a background thread, then the game objects are created on the render
+ * thread a few at a time, one batch per update() call.
+ *
+ * @author Gabe Werick
+ */
+public class LevelLoader implements Disposable
+{
+	public static final String TAG = LevelLoader.class.getName();
+
+	// share of the progress bar used by reading the layout
+	private static final float READ_PROGRESS = 0.2f;
+
+	private final String filename;
+	private final AsyncExecutor executor;
+	private AsyncResult<LevelData> result;
+	private Level level;
+	private boolean done;
+
+	/**
+	 * Starts reading the level layout in the background
+	 *
+	 * @param filename
+	 *            filename of the level to load
+	 */
+	public LevelLoader(final String filename)
+	{
+		this.filename = filename;
+		executor = new AsyncExecutor(1);
+		result = executor.submit(new AsyncTask<LevelData>()
+		{
+			@Override
+			public LevelData call() throws Exception
+			{
+				return LevelData.load(filename);
+			}
+		});
+		done = false;
+	}
+
+	/**
+	 * Advances loading, call once per frame from the render thread
+	 *
+	 * @return true when the level is ready
+	 */
+	public boolean update()
+	{
+		if (done)
+			return true;
+		if (level == null)
+		{
+			if (!result.isDone())
+				return false;
+			level = Level.deferred(result.get());
+			result = null;
+		}
+		done = level.build(Constants.LEVEL_BUILD_OBJECTS_PER_FRAME);
+		if (done)
+			Gdx.app.debug(TAG, "level '" + filename + "' loaded");
+		return done;
+	}
+
+	/**
+	 * Returns how far loading has come, from 0 to 1
+	 */
+	public float getProgress()
+	{
+		if (level == null)
+			return 0;
+		return READ_PROGRESS + (1 - READ_PROGRESS) * level.getBuildProgress();
+	}
+
+	/**
+	 * Returns the loaded level, or null while loading is not done
+	 */
+	public Level getLevel()
+	{
+		return done ? level : null;
+	}
+
+	/**
+	 * Stops the background thread
+	 */
+	@Override
+	public void dispose()
+	{
+		executor.dispose();
+	}
+}
@@ -0,0 +1,97 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.packetpub.libgdx.canyonbunny.game.objects.Rock;
+
+/**
+ * Remembers the starting state of a level and its physics world, so the level
+ * can be restarted in place instead of being loaded and built again.
+ *
+ * @author Kevin Rutter
+ */
+public class LevelSnapshot
+{
+	private final Level level;
+	private final CarrotPool carrotPool;
+
+	private final Vector2 bunnyPosition = new Vector2();
+	private final Array<Rock> rocks = new Array<Rock>();
+	private final Array<Body> rockBodies = new Array<Body>();
+	// rock positions stored as (x, y) pairs
+	private float[] rockPositions;
+
+	/**
+	 * Takes a snapshot of the current state of a level
+	 *
+	 * @param level
+	 *            The level to take a snapshot of.
+	 * @param carrotPool
+	 *            The pool the carrots of the level come from.
+	 */
+	public LevelSnapshot(Level level, CarrotPool carrotPool)
+	{
+		this.level = level;
+		this.carrotPool = carrotPool;
+		capture();
+	}
+
+	/**
+	 * Remembers the current state of the level
+	 */
+	public void capture()
+	{
+		bunnyPosition.set(level.bunnyHead.position);
+
+		rocks.clear();
+		rockBodies.clear();
+		rockPositions = new float[level.rocks.size * 2];
+		for (int i = 0; i < level.rocks.size; i++)
+		{
+			Rock rock = level.rocks.get(i);
+			rocks.add(rock);
+			rockBodies.add(rock.body);
+			rockPositions[i * 2] = rock.position.x;
+			rockPositions[i * 2 + 1] = rock.position.y;
+		}
+	}
+
+	/**
+	 * Puts the level back into the remembered state. Nothing is loaded or
+	 * allocated.
+	 */
+	public void restore()
+	{
+		// player character
+		level.bunnyHead.reset();
+		level.bunnyHead.position.set(bunnyPosition);
+		level.bunnyHead.storePreviousState();
+
+		// rocks and their bodies. Rocks that were streamed out of the level
+		// since the snapshot no longer have their body and are skipped.
+		for (int i = 0; i < rocks.size; i++)
+		{
+			Rock rock = rocks.get(i);
+			Body body = rockBodies.get(i);
+			if (body == null || rock.body != body)
+				continue;
+			float x = rockPositions[i * 2];
+			float y = rockPositions[i * 2 + 1];
+			rock.position.set(x, y);
+			rock.resetFloating();
+			rock.storePreviousState();
+			body.setTransform(x, y, 0);
+			body.setLinearVelocity(0, 0);
+		}
+
+		// collectibles
+		level.goldcoins.resetCollected();
+		level.feathers.resetCollected();
+
+		// carrots only exist after the goal was reached, their bodies are
+		// switched off and kept in the pool
+		carrotPool.freeAll(level.carrots);
+		level.carrots.clear();
+	}
+}
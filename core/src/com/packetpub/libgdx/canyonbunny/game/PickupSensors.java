@@ -0,0 +1,225 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.packetpub.libgdx.canyonbunny.game.objects.BunnyHead;
+import com.packetpub.libgdx.canyonbunny.game.objects.Goal;
+
+/**
+ * Finds the items and the goal the bunny touches with Box2D instead of
+ * rectangle tests. Every item and the goal get a static sensor fixture and the
+ * bunny gets a sensor body that follows it. Box2D's broadphase reports the
+ * contacts while the world is stepped, they are queued and handed out after
+ * the step.
+ *
+ * @author Kevin Rutter
+ */
+public class PickupSensors implements ContactListener
+{
+	/**
+	 * Gets told what the bunny touched
+	 */
+	public interface Listener
+	{
+		/**
+		 * Called when the bunny touches an item that has not been collected
+		 *
+		 * @param store
+		 *            store holding the item
+		 * @param index
+		 *            index of the item in the store
+		 */
+		public void itemTouched(CollectibleStore store, int index);
+
+		/**
+		 * Called when the bunny touches the goal
+		 */
+		public void goalTouched();
+	}
+
+	// collision categories, the bunny's sensor only meets items and the goal
+	private static final short CATEGORY_PLAYER = 0x0002;
+	private static final short CATEGORY_PICKUP = 0x0004;
+
+	// the goal reaches up this far, so the bunny cannot jump over it
+	private static final float GOAL_SENSOR_HEIGHT = 100.0f;
+
+	private final Level level;
+	private final Body bunnyBody;
+	// fixtures the bunny started touching during the last step
+	private final Array<Fixture> touched = new Array<Fixture>(false, 16);
+
+	/**
+	 * Creates the sensor bodies and starts listening to the world's contacts
+	 *
+	 * @param b2world
+	 *            world stepped by the game
+	 * @param level
+	 *            level whose items and goal get sensors
+	 */
+	public PickupSensors(World b2world, Level level)
+	{
+		this.level = level;
+		createItemSensors(b2world, level.goldcoins);
+		createItemSensors(b2world, level.feathers);
+		if (level.goal != null)
+			createGoalSensor(b2world, level.goal);
+		bunnyBody = createBunnySensor(b2world, level.bunnyHead);
+		b2world.setContactListener(this);
+	}
+
+	/**
+	 * Puts all sensors of one kind of item on one static body. The index of
+	 * each item is kept in its fixture.
+	 */
+	private void createItemSensors(World b2world, CollectibleStore store)
+	{
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyType.StaticBody;
+		Body body = b2world.createBody(bodyDef);
+		body.setUserData(store);
+
+		PolygonShape polygonShape = new PolygonShape();
+		FixtureDef fixtureDef = createSensorDef(polygonShape, CATEGORY_PICKUP, CATEGORY_PLAYER);
+		float halfSize = store.getItemSize() / 2.0f;
+		Vector2 center = new Vector2();
+		for (int i = 0; i < store.size; i++)
+		{
+			center.set(store.getX(i) + halfSize, store.getY(i) + halfSize);
+			polygonShape.setAsBox(halfSize, halfSize, center, 0);
+			body.createFixture(fixtureDef).setUserData(Integer.valueOf(i));
+		}
+		polygonShape.dispose();
+	}
+
+	/**
+	 * Creates the sensor of the goal, covering its bounds
+	 */
+	private void createGoalSensor(World b2world, Goal goal)
+	{
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyType.StaticBody;
+		bodyDef.position.set(goal.position);
+		Body body = b2world.createBody(bodyDef);
+		body.setUserData(goal);
+
+		PolygonShape polygonShape = new PolygonShape();
+		Vector2 center = new Vector2(goal.bounds.x + goal.bounds.width / 2.0f, GOAL_SENSOR_HEIGHT / 2.0f);
+		polygonShape.setAsBox(goal.bounds.width / 2.0f, GOAL_SENSOR_HEIGHT / 2.0f, center, 0);
+		body.createFixture(createSensorDef(polygonShape, CATEGORY_PICKUP, CATEGORY_PLAYER));
+		polygonShape.dispose();
+	}
+
+	/**
+	 * Creates the sensor body of the bunny. It is moved by sync(), gravity and
+	 * collisions do not touch it.
+	 */
+	private Body createBunnySensor(World b2world, BunnyHead bunnyHead)
+	{
+		BodyDef bodyDef = new BodyDef();
+		// contacts need at least one dynamic body
+		bodyDef.type = BodyType.DynamicBody;
+		bodyDef.gravityScale = 0;
+		bodyDef.fixedRotation = true;
+		// a sleeping body gets no new contacts
+		bodyDef.allowSleep = false;
+		bodyDef.position.set(bunnyHead.position);
+		Body body = b2world.createBody(bodyDef);
+
+		PolygonShape polygonShape = new PolygonShape();
+		Vector2 center = new Vector2(bunnyHead.bounds.width / 2.0f, bunnyHead.bounds.height / 2.0f);
+		polygonShape.setAsBox(bunnyHead.bounds.width / 2.0f, bunnyHead.bounds.height / 2.0f, center, 0);
+		body.createFixture(createSensorDef(polygonShape, CATEGORY_PLAYER, CATEGORY_PICKUP));
+		polygonShape.dispose();
+		return body;
+	}
+
+	/**
+	 * Returns the definition of a sensor fixture
+	 */
+	private static FixtureDef createSensorDef(PolygonShape shape, short category, short mask)
+	{
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = shape;
+		fixtureDef.isSensor = true;
+		fixtureDef.filter.categoryBits = category;
+		fixtureDef.filter.maskBits = mask;
+		return fixtureDef;
+	}
+
+	/**
+	 * Moves the bunny's sensor to where the bunny is. Call before stepping the
+	 * world.
+	 */
+	public void sync()
+	{
+		bunnyBody.setTransform(level.bunnyHead.position, 0);
+		bunnyBody.setLinearVelocity(0, 0);
+	}
+
+	/**
+	 * Hands out what the bunny started touching during the last step and
+	 * clears the queue. Call after stepping the world.
+	 *
+	 * @param listener
+	 *            gets told about every item and goal touched
+	 */
+	public void processContacts(Listener listener)
+	{
+		for (int i = 0; i < touched.size; i++)
+		{
+			Fixture fixture = touched.get(i);
+			Object owner = fixture.getBody().getUserData();
+			if (owner instanceof CollectibleStore)
+			{
+				CollectibleStore store = (CollectibleStore) owner;
+				int index = ((Integer) fixture.getUserData()).intValue();
+				if (!store.isCollected(index))
+					listener.itemTouched(store, index);
+			} else if (owner instanceof Goal)
+				listener.goalTouched();
+		}
+		touched.clear();
+	}
+
+	/**
+	 * Queues the fixture the bunny started touching. The world is locked
+	 * during the step, so nothing is changed here.
+	 */
+	@Override
+	public void beginContact(Contact contact)
+	{
+		Fixture fixtureA = contact.getFixtureA();
+		Fixture fixtureB = contact.getFixtureB();
+		if (fixtureA.getBody() == bunnyBody)
+			touched.add(fixtureB);
+		else if (fixtureB.getBody() == bunnyBody)
+			touched.add(fixtureA);
+	}
+
+	@Override
+	public void endContact(Contact contact)
+	{
+	}
+
+	@Override
+	public void preSolve(Contact contact, Manifold oldManifold)
+	{
+	}
+
+	@Override
+	public void postSolve(Contact contact, ContactImpulse impulse)
+	{
+	}
+}
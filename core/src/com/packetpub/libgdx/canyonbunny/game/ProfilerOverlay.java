@@ -0,0 +1,263 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Disposable;
+import com.packetpub.libgdx.canyonbunny.util.HudText;
+import com.packetpub.libgdx.canyonbunny.util.PhaseTimer;
+
+/**
+ * Shows how long the last frames took as a graph, how much of a frame each
+ * phase of the game loop takes, what was sent to OpenGL and how often the
+ * garbage collector ran. The numbers are averaged over half a second so they
+ * can be read. Drawn on top of the GUI, after the frame has been counted.
+ *
+ * @author Gabe Werick
+ */
+public class ProfilerOverlay implements Disposable
+{
+	// frames shown in the graph, one bar each
+	private static final int GRAPH_FRAMES = 120;
+	private static final float BAR_WIDTH = 2.0f;
+	private static final float GRAPH_HEIGHT = 60.0f;
+	// frame time at the top of the graph
+	private static final float GRAPH_MAX_MILLIS = 50.0f;
+	// frame times of 60, 45 and 30 FPS
+	private static final float FRAME_MILLIS_60 = 1000.0f / 60.0f;
+	private static final float FRAME_MILLIS_45 = 1000.0f / 45.0f;
+	private static final float FRAME_MILLIS_30 = 1000.0f / 30.0f;
+	// seconds the numbers are averaged over
+	private static final float REFRESH_INTERVAL = 0.5f;
+	private static final float MARGIN = 10.0f;
+
+	private final PhaseTimer[] phases;
+	// phase totals when they were last read and time added since the last
+	// refresh
+	private final long[] lastNanos;
+	private final long[] windowNanos;
+
+	// frame times in milliseconds, oldest first starting at nextFrame
+	private final float[] frameMillis = new float[GRAPH_FRAMES];
+	private int nextFrame;
+	private int windowFrames;
+	private float windowTime;
+	private float windowFrameMillis;
+
+	private final GLProfiler glProfiler;
+	private int windowDrawCalls;
+	private int windowTextureBindings;
+	private int windowShaderSwitches;
+
+	private final List<GarbageCollectorMXBean> collectors;
+	private final long startCollections;
+
+	private final ShapeRenderer shapes;
+	private final HudText frameText;
+	private final HudText[] phaseTexts;
+	private final HudText drawCallsText;
+	private final HudText textureBindingsText;
+	private final HudText shaderSwitchesText;
+	private final HudText gcText;
+
+	/**
+	 * Creates the overlay and starts counting OpenGL calls
+	 *
+	 * @param phases
+	 *            phases of the game loop to show, in the order shown
+	 */
+	public ProfilerOverlay(PhaseTimer... phases)
+	{
+		this.phases = phases;
+		lastNanos = new long[phases.length];
+		windowNanos = new long[phases.length];
+		phaseTexts = new HudText[phases.length];
+		for (int i = 0; i < phases.length; i++)
+		{
+			lastNanos[i] = phases[i].totalNanos;
+			phaseTexts[i] = new HudText(phases[i].name + " (us): ");
+		}
+		frameText = new HudText("frame (us): ");
+		drawCallsText = new HudText("draw calls: ");
+		textureBindingsText = new HudText("texture bindings: ");
+		shaderSwitchesText = new HudText("shader switches: ");
+		gcText = new HudText("GC runs: ");
+
+		glProfiler = new GLProfiler(Gdx.graphics);
+		// the headless backend has no GL of its own to wrap, nothing is
+		// counted there
+		if (Gdx.graphics.getGL20() != null)
+			glProfiler.enable();
+		// the list is made once, reading a count from it allocates nothing
+		collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		startCollections = countCollections();
+		shapes = new ShapeRenderer();
+	}
+
+	/**
+	 * Returns how often the garbage collectors ran since the game started
+	 */
+	private long countCollections()
+	{
+		long count = 0;
+		for (int i = 0; i < collectors.size(); i++)
+			count += Math.max(0, collectors.get(i).getCollectionCount());
+		return count;
+	}
+
+	/**
+	 * Adds the frame that was just drawn and draws the overlay. Call once a
+	 * frame, after everything else was drawn.
+	 *
+	 * @param batch
+	 *            batch to draw the text with, not between begin() and end()
+	 * @param cameraGUI
+	 *            camera of the GUI
+	 */
+	public void render(SpriteBatch batch, OrthographicCamera cameraGUI)
+	{
+		sample();
+		float x = MARGIN;
+		float y = cameraGUI.viewportHeight - MARGIN - GRAPH_HEIGHT;
+		renderGraph(cameraGUI, x, y);
+		renderText(batch, cameraGUI, x, y);
+		// the next frame counts from here, without the overlay's own calls
+		glProfiler.reset();
+	}
+
+	/**
+	 * Adds the frame to the graph and to the numbers of the current half
+	 * second
+	 */
+	private void sample()
+	{
+		float deltaTime = Gdx.graphics.getRawDeltaTime();
+		float millis = deltaTime * 1000.0f;
+		frameMillis[nextFrame] = millis;
+		nextFrame = (nextFrame + 1) % GRAPH_FRAMES;
+
+		windowFrames++;
+		windowTime += deltaTime;
+		windowFrameMillis += millis;
+		windowDrawCalls += glProfiler.getDrawCalls();
+		windowTextureBindings += glProfiler.getTextureBindings();
+		windowShaderSwitches += glProfiler.getShaderSwitches();
+		for (int i = 0; i < phases.length; i++)
+		{
+			long total = phases[i].totalNanos;
+			// the timer may have been reset by someone else
+			windowNanos[i] += Math.max(0, total - lastNanos[i]);
+			lastNanos[i] = total;
+		}
+		if (windowTime >= REFRESH_INTERVAL)
+			refresh();
+	}
+
+	/**
+	 * Shows the averages of the last half second and starts the next one
+	 */
+	private void refresh()
+	{
+		BitmapFont font = Assets.instance.fonts.defaultSmall;
+		frameText.setValue(font, (int) (windowFrameMillis * 1000.0f / windowFrames));
+		for (int i = 0; i < phases.length; i++)
+		{
+			phaseTexts[i].setValue(font, (int) (windowNanos[i] / 1000 / windowFrames));
+			windowNanos[i] = 0;
+		}
+		drawCallsText.setValue(font, windowDrawCalls / windowFrames);
+		textureBindingsText.setValue(font, windowTextureBindings / windowFrames);
+		shaderSwitchesText.setValue(font, windowShaderSwitches / windowFrames);
+		gcText.setValue(font, (int) (countCollections() - startCollections));
+		windowFrames = 0;
+		windowTime = 0;
+		windowFrameMillis = 0;
+		windowDrawCalls = 0;
+		windowTextureBindings = 0;
+		windowShaderSwitches = 0;
+	}
+
+	/**
+	 * Draws one bar per frame, colored like the FPS counter: green down to 45
+	 * FPS, yellow down to 30 FPS and red below
+	 */
+	private void renderGraph(OrthographicCamera cameraGUI, float x, float y)
+	{
+		float width = GRAPH_FRAMES * BAR_WIDTH;
+		float scale = GRAPH_HEIGHT / GRAPH_MAX_MILLIS;
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		shapes.setProjectionMatrix(cameraGUI.combined);
+		shapes.begin(ShapeType.Filled);
+		shapes.setColor(0, 0, 0, 0.5f);
+		shapes.rect(x, y, width, GRAPH_HEIGHT);
+		for (int i = 0; i < GRAPH_FRAMES; i++)
+		{
+			float millis = frameMillis[(nextFrame + i) % GRAPH_FRAMES];
+			if (millis <= FRAME_MILLIS_45)
+				shapes.setColor(Color.GREEN);
+			else if (millis <= FRAME_MILLIS_30)
+				shapes.setColor(Color.YELLOW);
+			else
+				shapes.setColor(Color.RED);
+			// the GUI camera is y-down, bars grow up from the bottom
+			float height = Math.min(millis, GRAPH_MAX_MILLIS) * scale;
+			shapes.rect(x + i * BAR_WIDTH, y + GRAPH_HEIGHT - height, BAR_WIDTH, height);
+		}
+		// mark 60 FPS
+		shapes.setColor(Color.WHITE);
+		shapes.rect(x, y + GRAPH_HEIGHT - FRAME_MILLIS_60 * scale, width, 1);
+		shapes.end();
+		Gdx.gl.glDisable(GL20.GL_BLEND);
+	}
+
+	/**
+	 * Draws the numbers above the graph
+	 */
+	private void renderText(SpriteBatch batch, OrthographicCamera cameraGUI, float x, float graphY)
+	{
+		float lineHeight = Assets.instance.fonts.defaultSmall.getLineHeight();
+		float y = graphY - lineHeight * (phases.length + 5);
+		batch.setProjectionMatrix(cameraGUI.combined);
+		batch.begin();
+		y = drawLine(batch, frameText, x, y, lineHeight);
+		for (int i = 0; i < phases.length; i++)
+			y = drawLine(batch, phaseTexts[i], x, y, lineHeight);
+		y = drawLine(batch, drawCallsText, x, y, lineHeight);
+		y = drawLine(batch, textureBindingsText, x, y, lineHeight);
+		y = drawLine(batch, shaderSwitchesText, x, y, lineHeight);
+		drawLine(batch, gcText, x, y, lineHeight);
+		batch.end();
+	}
+
+	/**
+	 * Draws a line of text and returns where the next one goes
+	 */
+	private static float drawLine(SpriteBatch batch, HudText text, float x, float y, float lineHeight)
+	{
+		if (text.hasValue())
+			text.draw(batch, x, y);
+		return y + lineHeight;
+	}
+
+	/**
+	 * Stops counting OpenGL calls and frees the graph's renderer
+	 */
+	@Override
+	public void dispose()
+	{
+		if (glProfiler.isEnabled())
+			glProfiler.disable();
+		shapes.dispose();
+	}
+}
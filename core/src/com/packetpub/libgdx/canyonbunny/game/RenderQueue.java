@@ -0,0 +1,141 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Collects draw commands for one frame and hands them to the batch sorted so
+ * that the batch flushes as rarely as possible. Commands go into layers which
+ * are drawn back to front. In a layer whose contents never overlap the
+ * commands are grouped by blend state and texture, in any other layer they
+ * keep the order they were added in. Sorting and drawing allocate nothing once
+ * the queue has grown to the number of commands of a frame.
+ *
+ * @author Gabe Werick
+ */
+public class RenderQueue
+{
+	/**
+	 * Something drawn by the queue
+	 */
+	public interface Command
+	{
+		/**
+		 * Draws with the batch, between begin() and end() of the batch
+		 */
+		public void render(SpriteBatch batch);
+	}
+
+	// bits of a sort key: layer, then blend state and texture, then the order
+	// the command was added in
+	private static final int LAYER_SHIFT = 48;
+	private static final int ADDITIVE_SHIFT = 47;
+	private static final int TEXTURE_SHIFT = 24;
+	private static final long INDEX_MASK = (1L << TEXTURE_SHIFT) - 1;
+
+	private final boolean[] sortable;
+	private final Array<Command> commands = new Array<Command>();
+	private final Array<Texture> textures = new Array<Texture>();
+	private final BooleanArray additives = new BooleanArray();
+	private long[] keys = new long[64];
+	// small number for every texture seen this frame, in the order seen
+	private final ObjectIntMap<Texture> textureIds = new ObjectIntMap<Texture>();
+
+	// number of times the texture or blend state changed between commands
+	// during the last render() call
+	public int textureSwitches;
+
+	/**
+	 * Creates an empty queue
+	 *
+	 * @param sortable
+	 *            one entry per layer, true if the commands of that layer may
+	 *            be drawn in any order
+	 */
+	public RenderQueue(boolean... sortable)
+	{
+		this.sortable = sortable;
+	}
+
+	/**
+	 * Adds a command
+	 *
+	 * @param layer
+	 *            layer to draw the command in
+	 * @param texture
+	 *            texture the command draws with, null if it draws around the
+	 *            batch instead, such as cached geometry
+	 * @param additive
+	 *            true if the command draws with additive blending
+	 * @param command
+	 *            the command
+	 */
+	public void add(int layer, Texture texture, boolean additive, Command command)
+	{
+		int index = commands.size;
+		long key = (long) layer << LAYER_SHIFT | index;
+		if (sortable[layer])
+		{
+			if (additive)
+				key |= 1L << ADDITIVE_SHIFT;
+			key |= (long) textureId(texture) << TEXTURE_SHIFT;
+		}
+		if (index == keys.length)
+			keys = Arrays.copyOf(keys, index * 2);
+		keys[index] = key;
+		commands.add(command);
+		textures.add(texture);
+		additives.add(additive);
+	}
+
+	/**
+	 * Returns the number of the texture, giving it the next free one if it has
+	 * not been seen this frame. Texture 0 is no texture.
+	 */
+	private int textureId(Texture texture)
+	{
+		if (texture == null)
+			return 0;
+		int id = textureIds.get(texture, 0);
+		if (id == 0)
+		{
+			id = textureIds.size + 1;
+			textureIds.put(texture, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Draws all commands in sorted order and empties the queue
+	 *
+	 * @param batch
+	 *            batch to draw with, between begin() and end() of the batch
+	 */
+	public void render(SpriteBatch batch)
+	{
+		Arrays.sort(keys, 0, commands.size);
+		textureSwitches = 0;
+		Texture lastTexture = null;
+		boolean lastAdditive = false;
+		for (int i = 0; i < commands.size; i++)
+		{
+			int index = (int) (keys[i] & INDEX_MASK);
+			Texture texture = textures.get(index);
+			boolean additive = additives.get(index);
+			if (i > 0 && (texture != lastTexture || additive != lastAdditive))
+				textureSwitches++;
+			lastTexture = texture;
+			lastAdditive = additive;
+			commands.get(index).render(batch);
+		}
+		commands.clear();
+		textures.clear();
+		additives.clear();
+		textureIds.clear();
+	}
+}
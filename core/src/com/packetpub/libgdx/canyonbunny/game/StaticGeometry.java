@@ -0,0 +1,132 @@
+package com.packetpub.libgdx.canyonbunny.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.Texture.TextureWrap;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+import com.packetpub.libgdx.canyonbunny.game.objects.Mountains;
+
+/**
+ * Holds the mountains of a level, built once when the level is loaded. Every
+ * mountain layer repeats the same left/right pair, so the pair is rendered
+ * once into a texture that repeats, and each layer is drawn as one quad no
+ * matter how long the level is.
+ *
+ * The rocks float, so they cannot share one cache. Each rock keeps the
+ * vertices of its pieces instead and hands them to the batch in one call.
+ *
+ * @author Gabe Werick
+ */
+public class StaticGeometry implements Disposable
+{
+	private final Level level;
+
+	// one mountain pair, repeated along every layer
+	private final FrameBuffer mountainStrip;
+	// lost GL contexts when the mountain strip was drawn
+	private final int contextLosses;
+
+	/**
+	 * Builds the cached geometry of a level
+	 *
+	 * @param level
+	 *            level whose mountains are cached
+	 * @param batch
+	 *            batch used to render the mountain pair, must not be drawing
+	 */
+	public StaticGeometry(Level level, SpriteBatch batch)
+	{
+		this.level = level;
+		mountainStrip = createMountainStrip(level.mountains, batch);
+		contextLosses = Assets.instance.contextWatcher.getLosses();
+	}
+
+	/**
+	 * Renders one left/right mountain pair into a frame buffer whose texture
+	 * repeats horizontally. The size is a power of two, which repeating
+	 * textures need on OpenGL ES 2.0.
+	 */
+	private static FrameBuffer createMountainStrip(Mountains mountains, SpriteBatch batch)
+	{
+		TextureRegion left = Assets.instance.levelDecoration.mountainLeft;
+		TextureRegion right = Assets.instance.levelDecoration.mountainRight;
+		int width = MathUtils.nextPowerOfTwo(left.getRegionWidth() + right.getRegionWidth());
+		int height = MathUtils.nextPowerOfTwo(Math.max(left.getRegionHeight(), right.getRegionHeight()));
+		FrameBuffer strip = new FrameBuffer(Format.RGBA8888, width, height, false);
+		strip.getColorBufferTexture().setFilter(TextureFilter.Linear, TextureFilter.Linear);
+		strip.getColorBufferTexture().setWrap(TextureWrap.Repeat, TextureWrap.ClampToEdge);
+
+		Matrix4 projection = batch.getProjectionMatrix().cpy();
+		strip.begin();
+		Gdx.gl.glClearColor(0, 0, 0, 0);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		batch.setProjectionMatrix(new Matrix4().setToOrtho2D(0, 0, width, height));
+		// copy the pixels as they are, blending would change the alpha of
+		// the soft edges
+		batch.disableBlending();
+		batch.begin();
+		mountains.drawPair(batch, 0, 0, width, height);
+		batch.end();
+		batch.enableBlending();
+		strip.end();
+		batch.setProjectionMatrix(projection);
+		return strip;
+	}
+
+	/**
+	 * Tells whether this geometry was built for a level
+	 */
+	public boolean isFor(Level level)
+	{
+		return this.level == level;
+	}
+
+	/**
+	 * Tells whether the GL context was lost since this geometry was built,
+	 * which leaves the mountain texture empty
+	 */
+	public boolean isLost()
+	{
+		return Assets.instance.contextWatcher.getLosses() != contextLosses;
+	}
+
+	/**
+	 * Draws all mountain layers at their current scroll position, one quad
+	 * each
+	 * 
+	 * @param batch
+	 *            batch to draw with, between begin() and end() of the batch
+	 * @param view
+	 *            visible part of the world
+	 */
+	public void renderMountains(SpriteBatch batch, Rectangle view)
+	{
+		level.mountains.render(batch, view, getMountainTexture());
+	}
+
+	/**
+	 * Returns the texture the mountains are drawn from
+	 */
+	public Texture getMountainTexture()
+	{
+		return mountainStrip.getColorBufferTexture();
+	}
+
+	/**
+	 * Frees the mountain texture
+	 */
+	@Override
+	public void dispose()
+	{
+		mountainStrip.dispose();
+	}
+}
@@ -15,14 +15,13 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.packetpub.libgdx.canyonbunny.game.objects.Rock;
 import com.packetpub.libgdx.canyonbunny.util.Constants;
+import com.packetpub.libgdx.canyonbunny.util.PhaseTimer;
 import com.badlogic.gdx.math.Rectangle;
 import com.packetpub.libgdx.canyonbunny.game.objects.BunnyHead;
 import com.packetpub.libgdx.canyonbunny.game.objects.BunnyHead.JUMP_STATE;
-import com.packetpub.libgdx.canyonbunny.game.objects.Feather;
-import com.packetpub.libgdx.canyonbunny.game.objects.GoldCoin;
 import com.packetpub.libgdx.canyonbunny.game.objects.Rock;
 import com.badlogic.gdx.Game;
-import com.packetpub.libgdx.canyonbunny.screens.MenuScreen;
+import com.packetpub.libgdx.canyonbunny.screens.ScreenManager;
 import com.badlogic.gdx.math.MathUtils;
 import com.packetpub.libgdx.canyonbunny.util.AudioManager;
 import com.badlogic.gdx.math.Vector2;
@@ -39,7 +38,8 @@ import com.badlogic.gdx.utils.Disposable;
  * @author Kevin Rutter Contains controls for the game, such as for the camera,
  *         movement, etc.
  */
-public class WorldController extends InputAdapter implements Disposable
+public class WorldController extends InputAdapter
+		implements Disposable, LevelChunks.Listener, PickupSensors.Listener
 {
 	// Tag used for logging purposes
 	private static final String TAG = WorldController.class.getName();
@@ -57,10 +57,32 @@ public class WorldController extends InputAdapter implements Disposable
 	// Rectangles for collision detection
 	private Rectangle r1 = new Rectangle();
 	private Rectangle r2 = new Rectangle();
+
+	// Reused results of the collision broadphase queries
+	private Array<Rock> nearbyRocks = new Array<Rock>();
 	
 	private boolean goalReached;
 	public World b2world;
 
+	// level handed over by the loading screen, used by the first initLevel()
+	private Level loadedLevel;
+	// starting state of the level, restored when the level restarts
+	private LevelSnapshot levelSnapshot;
+	// carrots and their bodies, reused every time the goal is reached
+	private CarrotPool carrotPool;
+	private Vector2 carrotSpawnPosition = new Vector2();
+	// Box2D sensors finding items and the goal, null when rectangle tests are
+	// used
+	private final boolean usePickupSensors;
+	private PickupSensors pickupSensors;
+
+	// time spent in the main phases of update()
+	public final PhaseTimer inputTimer = new PhaseTimer("input");
+	public final PhaseTimer levelUpdateTimer = new PhaseTimer("level.update");
+	public final PhaseTimer collisionTimer = new PhaseTimer("testCollisions");
+	public final PhaseTimer physicsTimer = new PhaseTimer("b2world.step");
+	public final PhaseTimer cameraTimer = new PhaseTimer("cameraHelper.update");
+
 	/**
 	 * Creates a game controller instance
 	 * 
@@ -69,6 +91,36 @@ public class WorldController extends InputAdapter implements Disposable
 	public WorldController(Game game)
 	{
 		this.game = game;
+		this.usePickupSensors = Constants.PICKUP_SENSORS;
+		init();
+	}
+
+	/**
+	 * Creates a game controller instance for a level that has already been
+	 * loaded
+	 * 
+	 * @param game		The application listener for the game.
+	 * @param level		The loaded level to start with.
+	 */
+	public WorldController(Game game, Level level)
+	{
+		this(game, level, Constants.PICKUP_SENSORS);
+	}
+
+	/**
+	 * Creates a game controller instance for a level that has already been
+	 * loaded
+	 * 
+	 * @param game		The application listener for the game.
+	 * @param level		The loaded level to start with.
+	 * @param usePickupSensors	True to find items and the goal with Box2D
+	 * 							sensors, false for rectangle tests.
+	 */
+	public WorldController(Game game, Level level, boolean usePickupSensors)
+	{
+		this.game = game;
+		this.loadedLevel = level;
+		this.usePickupSensors = usePickupSensors;
 		init();
 	}
 
@@ -116,13 +168,13 @@ public class WorldController extends InputAdapter implements Disposable
 	 * removes the gold coin from the level.
 	 * 
 	 * @param goldcoin
-	 *            The coin the bunny hits.
+	 *            Index of the coin the bunny hits.
 	 */
-	private void onCollisionBunnyWithGoldCoin(GoldCoin goldcoin)
+	private void onCollisionBunnyWithGoldCoin(int goldcoin)
 	{
-		goldcoin.collected = true;
+		level.goldcoins.setCollected(goldcoin, true);
 		AudioManager.instance.play(Assets.instance.sounds.pickupCoin);
-		score += goldcoin.getScore();
+		score += level.goldcoins.score;
 		Gdx.app.log(TAG, "Gold coin collected");
 	}
 
@@ -131,27 +183,57 @@ public class WorldController extends InputAdapter implements Disposable
 	 * power up.
 	 * 
 	 * @param feather
-	 *            The feather the bunny hits.
+	 *            Index of the feather the bunny hits.
 	 */
-	private void onCollisionBunnyWithFeather(Feather feather)
+	private void onCollisionBunnyWithFeather(int feather)
 	{
-		feather.collected = true;
+		level.feathers.setCollected(feather, true);
 		AudioManager.instance.play(Assets.instance.sounds.pickupFeather);
-		score += feather.getScore();
+		score += level.feathers.score;
 		level.bunnyHead.setFeatherPowerup(true);
 		Gdx.app.log(TAG, "Feather collected");
 	}
 
 	/**
-	 * Checks if the bunny head collided with anything.
+	 * Called by the pickup sensors when the bunny touches an item.
+	 * 
+	 * @param store
+	 *            The store holding the item.
+	 * @param index
+	 *            Index of the item in the store.
 	 */
-	private void testCollisions()
+	@Override
+	public void itemTouched(CollectibleStore store, int index)
+	{
+		if (store == level.goldcoins)
+			onCollisionBunnyWithGoldCoin(index);
+		else if (store == level.feathers)
+			onCollisionBunnyWithFeather(index);
+	}
+
+	/**
+	 * Called by the pickup sensors when the bunny touches the goal.
+	 */
+	@Override
+	public void goalTouched()
+	{
+		if (!goalReached)
+			onCollisionBunnyWithGoal();
+	}
+
+	/**
+	 * Checks if the bunny head collided with anything. Items and the goal are
+	 * left to stepPhysics() when pickup sensors are used. Called by update(),
+	 * public so benchmarks can run it on its own.
+	 */
+	public void testCollisions()
 	{
 		r1.set(level.bunnyHead.position.x, level.bunnyHead.position.y, level.bunnyHead.bounds.width,
 				level.bunnyHead.bounds.height);
 
 		// Test collision: Bunny Head <-> Rocks
-		for (Rock rock : level.rocks)
+		level.rockGrid.query(r1.x, r1.width, nearbyRocks);
+		for (Rock rock : nearbyRocks)
 		{
 			r2.set(rock.position.x, rock.position.y, rock.bounds.width, rock.bounds.height);
 			if (!r1.overlaps(r2))
@@ -161,29 +243,18 @@ public class WorldController extends InputAdapter implements Disposable
 			// edge testing on rocks.
 		}
 
+		if (pickupSensors != null)
+			return;
+
 		// Test collision: Bunny Head <-> Gold Coins
-		for (GoldCoin goldcoin : level.goldcoins)
-		{
-			if (goldcoin.collected)
-				continue;
-			r2.set(goldcoin.position.x, goldcoin.position.y, goldcoin.bounds.width, goldcoin.bounds.height);
-			if (!r1.overlaps(r2))
-				continue;
+		int goldcoin = level.goldcoins.findOverlap(r1);
+		if (goldcoin >= 0)
 			onCollisionBunnyWithGoldCoin(goldcoin);
-			break;
-		}
 
 		// Test collision: Bunny Head <-> Feathers
-		for (Feather feather : level.feathers)
-		{
-			if (feather.collected)
-				continue;
-			r2.set(feather.position.x, feather.position.y, feather.bounds.width, feather.bounds.height);
-			if (!r1.overlaps(r2))
-				continue;
+		int feather = level.feathers.findOverlap(r1);
+		if (feather >= 0)
 			onCollisionBunnyWithFeather(feather);
-			break;
-		}
 		
 		// Test collision: Bunny Head <-> Goal
 		if (!goalReached)
@@ -201,6 +272,7 @@ public class WorldController extends InputAdapter implements Disposable
 	 */
 	public WorldController()
 	{
+		this.usePickupSensors = Constants.PICKUP_SENSORS;
 		init();
 	}
 
@@ -211,7 +283,10 @@ public class WorldController extends InputAdapter implements Disposable
 	public void init()
 	{
 		Gdx.input.setInputProcessor(this);
-		cameraHelper = new CameraHelper();
+		// kept when the game is played again
+		if (cameraHelper == null)
+			cameraHelper = new CameraHelper();
+		cameraHelper.setZoom(1.0f);
 		lives = Constants.LIVES_START;
 		livesVisual = lives;
 		timeLeftGameOverDelay = 0;
@@ -219,16 +294,50 @@ public class WorldController extends InputAdapter implements Disposable
 	}
 
 	/**
-	 * Initializes the level to the starting state described by level file
+	 * Initializes the level to the starting state described by level file. The
+	 * level is only built once, later calls restore it from a snapshot.
 	 */
 	public void initLevel()
 	{
 		score = 0;
 		scoreVisual = score;
 		goalReached = false;
-		level = new Level(Constants.LEVEL_01);
+		if (levelSnapshot != null)
+		{
+			levelSnapshot.restore();
+		} else
+		{
+			if (loadedLevel != null)
+			{
+				level = loadedLevel;
+				loadedLevel = null;
+			} else
+			{
+				level = new Level(Constants.LEVEL_01);
+			}
+			initPhysics();
+			if (level.chunks != null)
+			{
+				level.chunks.setListener(this);
+				level.chunks.update(level.bunnyHead.position.x);
+			}
+			levelSnapshot = new LevelSnapshot(level, carrotPool);
+		}
 		cameraHelper.setTarget(level.bunnyHead);
-		initPhysics();
+		// a restart starts at the spawn, not where the bunny was lost
+		cameraHelper.snapToTarget();
+		updateStreaming();
+	}
+
+	/**
+	 * Streams in the chunks and activates the rocks around the camera
+	 */
+	private void updateStreaming()
+	{
+		if (level.chunks != null)
+			level.chunks.update(cameraHelper.getPosition().x);
+		level.updateActiveRocks(cameraHelper.getPosition().x,
+				Constants.ROCK_ACTIVE_DISTANCE * Math.max(1, cameraHelper.getZoom()));
 	}
 	
 	/**
@@ -241,23 +350,61 @@ public class WorldController extends InputAdapter implements Disposable
 		b2world = new World(new Vector2(0, -9.81f), true);
 		
 		// Rocks
-		Vector2 origin = new Vector2();
 		for (Rock rock : level.rocks)
-		{
-			BodyDef bodyDef = new BodyDef();
-			bodyDef.type = BodyType.KinematicBody;
-			bodyDef.position.set(rock.position);
-			Body body = b2world.createBody(bodyDef);
-			rock.body = body;
-			PolygonShape polygonShape = new PolygonShape();
-			origin.x = rock.bounds.width / 2.0f;
-			origin.y = rock.bounds.height / 2.0f;
-			polygonShape.setAsBox(rock.bounds.width /2.0f, rock.bounds.height / 2.0f, origin, 0);
-			FixtureDef fixtureDef = new FixtureDef();
-			fixtureDef.shape = polygonShape;
-			body.createFixture(fixtureDef);
-			polygonShape.dispose();
-		}
+			createRockBody(rock);
+
+		// Carrots, created now so reaching the goal does not create any
+		carrotPool = new CarrotPool(b2world);
+		carrotPool.prefill(Constants.CARROTS_SPAWN_MAX);
+
+		// Items and goal
+		if (usePickupSensors)
+			pickupSensors = new PickupSensors(b2world, level);
+	}
+
+	/**
+	 * Creates the kinematic Box2D body of a rock.
+	 * 
+	 * @param rock
+	 *            The rock to create a body for.
+	 */
+	private void createRockBody(Rock rock)
+	{
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyType.KinematicBody;
+		bodyDef.position.set(rock.position);
+		// rocks far from the camera start switched off
+		bodyDef.active = rock.isActive();
+		Body body = b2world.createBody(bodyDef);
+		rock.body = body;
+		PolygonShape polygonShape = new PolygonShape();
+		Vector2 origin = new Vector2();
+		origin.x = rock.bounds.width / 2.0f;
+		origin.y = rock.bounds.height / 2.0f;
+		polygonShape.setAsBox(rock.bounds.width /2.0f, rock.bounds.height / 2.0f, origin, 0);
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = polygonShape;
+		body.createFixture(fixtureDef);
+		polygonShape.dispose();
+	}
+
+	/**
+	 * Gives rocks streamed into the level a body.
+	 */
+	@Override
+	public void rockAdded(Rock rock)
+	{
+		createRockBody(rock);
+	}
+
+	/**
+	 * Destroys the body of rocks streamed out of the level.
+	 */
+	@Override
+	public void rockRemoved(Rock rock)
+	{
+		b2world.destroyBody(rock.body);
+		rock.body = null;
 	}
 
 	/**
@@ -353,13 +500,16 @@ public class WorldController extends InputAdapter implements Disposable
 	}
 
 	/**
-	 * Applies updates to the game world many times a second.
+	 * Advances the game world by one simulation step.
 	 * 
 	 * @param deltaTime
-	 *            How much time has passed since last frame.
+	 *            Length of the simulation step.
 	 */
 	public void update(float deltaTime)
 	{
+		level.storePreviousState();
+		cameraHelper.storePreviousPosition();
+		inputTimer.start();
 		handleDebugInput(deltaTime);
 		if (isGameOver() || goalReached)
 		{
@@ -370,10 +520,20 @@ public class WorldController extends InputAdapter implements Disposable
 		{
 			handleInputGame(deltaTime);
 		}
+		inputTimer.stop();
+		updateStreaming();
+		levelUpdateTimer.start();
 		level.update(deltaTime);
+		levelUpdateTimer.stop();
+		collisionTimer.start();
 		testCollisions();
-		b2world.step(deltaTime, 8, 3);
+		collisionTimer.stop();
+		physicsTimer.start();
+		stepPhysics(deltaTime);
+		physicsTimer.stop();
+		cameraTimer.start();
 		cameraHelper.update(deltaTime);
+		cameraTimer.stop();
 		if (!isGameOver() && isPlayerInWater())
 		{
 			AudioManager.instance.play(Assets.instance.sounds.liveLost);
@@ -390,6 +550,23 @@ public class WorldController extends InputAdapter implements Disposable
 			scoreVisual = Math.min(score, scoreVisual + 250 * deltaTime);
 	}
 
+	/**
+	 * Steps the Box2D world. With pickup sensors, the bunny's sensor is moved
+	 * to the bunny first and the items and goal it touched are handled after
+	 * the step. Called by update(), public so benchmarks can run it on its own.
+	 * 
+	 * @param deltaTime
+	 *            Length of the simulation step.
+	 */
+	public void stepPhysics(float deltaTime)
+	{
+		if (pickupSensors != null)
+			pickupSensors.sync();
+		b2world.step(deltaTime, 8, 3);
+		if (pickupSensors != null)
+			pickupSensors.processContacts(this);
+	}
+
 	/**
 	 * Tests out movement of sprites and camera.
 	 * 
@@ -474,7 +651,7 @@ public class WorldController extends InputAdapter implements Disposable
 	private void backToMenu()
 	{
 		// switch to menu screen
-		game.setScreen(new MenuScreen(game));
+		game.setScreen(ScreenManager.getMenuScreen(game));
 	}
 	
 	/**
@@ -485,39 +662,15 @@ public class WorldController extends InputAdapter implements Disposable
 	 */
 	private void spawnCarrots(Vector2 pos, int numCarrots, float radius)
 	{
-		float carrotShapeScale = 0.5f;
-		// create carrots with box2d body and fixture
+		// take carrots with box2d body and fixture from the pool
 		for (int i = 0; i < numCarrots; i++)
 		{
-			Carrot carrot = new Carrot();
 			// calculate random spawn position, rotation, and scale
 			float x = MathUtils.random(-radius, radius);
 			float y = MathUtils.random(5.0f, 15.0f);
 			float rotation = MathUtils.degreesToRadians;
 			float carrotScale = MathUtils.random(0.5f, 1.5f);
-			carrot.scale.set(carrotScale, carrotScale);
-			// create box2d body for carrot with start position
-			// and angle of rotation
-			BodyDef bodyDef = new BodyDef();
-			bodyDef.position.set(pos);
-			bodyDef.position.add(x, y);
-			bodyDef.angle = rotation;
-			Body body = b2world.createBody(bodyDef);
-			body.setType(BodyType.DynamicBody);
-			carrot.body = body;
-			// create rectangular shape for carrot to allow
-			// interactions (collisions) with other objects
-			PolygonShape polygonShape = new PolygonShape();
-			float halfWidth = carrot.bounds.width / 2.0f * carrotScale;
-			float halfHeight = carrot.bounds.height / 2.0f * carrotScale;
-			polygonShape.setAsBox(halfWidth * carrotShapeScale, halfHeight * carrotShapeScale);
-			// set physics attributes
-			FixtureDef fixtureDef = new FixtureDef();
-			fixtureDef.shape = polygonShape;
-			fixtureDef.density = 50;
-			fixtureDef.restitution = 0.5f;
-			body.createFixture(fixtureDef);
-			polygonShape.dispose();
+			Carrot carrot = carrotPool.spawn(pos.x + x, pos.y + y, rotation, carrotScale);
 			// finally, add new carrot to list for updating/rendering
 			level.carrots.add(carrot);
 		}
@@ -530,17 +683,20 @@ public class WorldController extends InputAdapter implements Disposable
 	{
 		goalReached = true;
 		timeLeftGameOverDelay = Constants.TIME_DELAY_GAME_FINISHED;
-		Vector2 centerPosBunnyHead = new Vector2(level.bunnyHead.position);
-		centerPosBunnyHead.x += level.bunnyHead.bounds.width;
-		spawnCarrots(centerPosBunnyHead, Constants.CARROTS_SPAWN_MAX, Constants.CARROTS_SPAWN_RADIUS);
+		carrotSpawnPosition.set(level.bunnyHead.position);
+		carrotSpawnPosition.x += level.bunnyHead.bounds.width;
+		spawnCarrots(carrotSpawnPosition, Constants.CARROTS_SPAWN_MAX, Constants.CARROTS_SPAWN_RADIUS);
 	}
 	
 	/**
-	 * Frees up memory used by box2d's physics world.
+	 * Frees up memory used by box2d's physics world and gives the bunny's
+	 * particles back to their pool.
 	 */
 	@Override
 	public void dispose()
 	{
+		if (level != null)
+			level.bunnyHead.freeParticles();
 		if (b2world != null)
 			b2world.dispose();
 	}
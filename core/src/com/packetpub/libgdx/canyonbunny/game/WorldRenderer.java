@@ -2,13 +2,18 @@ package com.packetpub.libgdx.canyonbunny.game;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Disposable;
 import com.packetpub.libgdx.canyonbunny.util.Constants;
 import com.packetpub.libgdx.canyonbunny.util.GamePreferences;
+import com.packetpub.libgdx.canyonbunny.util.HudText;
+import com.packetpub.libgdx.canyonbunny.util.PhaseTimer;
+import com.packetpub.libgdx.canyonbunny.util.RenderStats;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 
@@ -17,12 +22,91 @@ import com.badlogic.gdx.graphics.g2d.Sprite;
  */
 public class WorldRenderer implements Disposable
 {
+	private static final String TAG = WorldRenderer.class.getName();
 	private OrthographicCamera camera;
 	private OrthographicCamera cameraGUI;
 	private SpriteBatch batch;
 	private WorldController worldController;
 	private static final boolean DEBUG_DRAW_BOX2D_WORLD = false;
 	private Box2DDebugRenderer b2debugRenderer;
+	// part of the world seen by the camera
+	private Rectangle view;
+	// cached mountains of the current level
+	private StaticGeometry staticGeometry;
+	// GUI text, laid out again only when the numbers change
+	private HudText scoreText;
+	private HudText featherText;
+	private HudText fpsText;
+	// GUI elements never overlap, so they are drawn grouped by texture
+	private RenderQueue guiQueue;
+	private static final int GUI_LAYER = 0;
+	// what the batch did during the last frame
+	private RenderStats stats;
+	private float statsLogTime;
+	// shown when switched on in the options, null otherwise
+	private ProfilerOverlay profilerOverlay;
+
+	// time spent drawing the world and the GUI
+	public final PhaseTimer worldRenderTimer = new PhaseTimer("world render");
+	public final PhaseTimer guiRenderTimer = new PhaseTimer("GUI render");
+
+	// GUI elements queued by renderGui()
+	private final RenderQueue.Command guiScoreIcon = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			renderGuiScoreIcon(batch);
+		}
+	};
+	private final RenderQueue.Command guiScoreText = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			renderGuiScoreText(batch);
+		}
+	};
+	private final RenderQueue.Command guiFeatherIcon = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			renderGuiFeatherPowerupIcon(batch);
+		}
+	};
+	private final RenderQueue.Command guiFeatherText = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			renderGuiFeatherPowerupText(batch);
+		}
+	};
+	private final RenderQueue.Command guiExtraLives = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			renderGuiExtraLive(batch);
+		}
+	};
+	private final RenderQueue.Command guiFpsCounter = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			renderGuiFpsCounter(batch);
+		}
+	};
+	private final RenderQueue.Command guiGameOverMessage = new RenderQueue.Command()
+	{
+		@Override
+		public void render(SpriteBatch batch)
+		{
+			renderGuiGameOverMessage(batch);
+		}
+	};
 
 	/**
 	 * Constructor for WorldRenderer, initializes worldController then calls init
@@ -57,15 +141,75 @@ public class WorldRenderer implements Disposable
 		cameraGUI.setToOrtho(true);
 		cameraGUI.update();
 		b2debugRenderer = new Box2DDebugRenderer();
+		view = new Rectangle();
+		scoreText = new HudText("");
+		featherText = new HudText("");
+		fpsText = new HudText("FPS: ");
+		guiQueue = new RenderQueue(true);
+		stats = new RenderStats();
 	}
 
 	/**
-	 * Calls renderTestObjects()
+	 * Renders the world and the GUI
+	 * 
+	 * @param alpha
+	 *            how far the world is drawn from the previous to the current
+	 *            simulation step, 0 to 1
 	 */
-	public void render()
+	public void render(float alpha)
 	{
-		renderWorld(batch);
+		stats.beginFrame(batch);
+		worldRenderTimer.start();
+		renderWorld(batch, alpha);
+		worldRenderTimer.stop();
+		guiRenderTimer.start();
 		renderGui(batch);
+		guiRenderTimer.stop();
+		stats.endFrame(batch);
+		logStats();
+		renderProfiler();
+	}
+
+	/**
+	 * Draws the profiler overlay if it is switched on in the options
+	 */
+	private void renderProfiler()
+	{
+		if (!GamePreferences.instance.showProfiler)
+		{
+			if (profilerOverlay != null)
+			{
+				profilerOverlay.dispose();
+				profilerOverlay = null;
+			}
+			return;
+		}
+		if (profilerOverlay == null)
+			profilerOverlay = new ProfilerOverlay(worldController.inputTimer, worldController.levelUpdateTimer,
+					worldController.collisionTimer, worldController.physicsTimer, worldRenderTimer, guiRenderTimer);
+		profilerOverlay.render(batch, cameraGUI);
+	}
+
+	/**
+	 * Returns what the batch did during the last frame
+	 */
+	public RenderStats getStats()
+	{
+		return stats;
+	}
+
+	/**
+	 * Logs the batch statistics once a second if enabled
+	 */
+	private void logStats()
+	{
+		if (!Constants.LOG_RENDER_STATS)
+			return;
+		statsLogTime += Gdx.graphics.getDeltaTime();
+		if (statsLogTime < 1.0f)
+			return;
+		statsLogTime = 0;
+		Gdx.app.debug(TAG, stats.toString());
 	}
 
 	/**
@@ -88,19 +232,55 @@ public class WorldRenderer implements Disposable
 		cameraGUI.update();
 	}
 
+	/**
+	 * Builds the cached mountains of the current level if they are missing,
+	 * belong to another level or were lost with the GL context. They are
+	 * drawn into a frame buffer and frame buffers do not nest, so call this
+	 * while drawing to the screen, not into a frame buffer.
+	 */
+	public void updateStaticGeometry()
+	{
+		Level level = worldController.level;
+		if (staticGeometry != null && staticGeometry.isFor(level) && !staticGeometry.isLost())
+			return;
+		if (staticGeometry != null)
+			staticGeometry.dispose();
+		staticGeometry = new StaticGeometry(level, batch);
+	}
+
+	/**
+	 * Sets the view rectangle to the part of the world seen by the camera
+	 */
+	private void updateView()
+	{
+		float width = camera.viewportWidth * camera.zoom;
+		float height = camera.viewportHeight * camera.zoom;
+		view.set(camera.position.x - width / 2, camera.position.y - height / 2, width, height);
+	}
+
 	/**
 	 * Responsible for rendering the world
 	 * 
 	 * @param batch
 	 *            SpriteBatch object being used to draw
+	 * @param alpha
+	 *            how far the world is drawn from the previous to the current
+	 *            simulation step, 0 to 1
 	 */
-	private void renderWorld(SpriteBatch batch)
+	private void renderWorld(SpriteBatch batch, float alpha)
 	{
-		worldController.cameraHelper.applyTo(camera);
+		worldController.cameraHelper.applyTo(camera, alpha);
+		updateView();
+		Level level = worldController.level;
+		// normally built already by the game screen, outside any frame buffer
+		updateStaticGeometry();
 		batch.setProjectionMatrix(camera.combined);
 		batch.begin();
-		worldController.level.render(batch);
+		worldController.level.beginInterpolation(alpha);
+		worldController.level.render(batch, view, staticGeometry);
+		worldController.level.endInterpolation();
 		batch.end();
+		stats.textureSwitches += level.textureSwitches;
 		
 		if(DEBUG_DRAW_BOX2D_WORLD)
 		{
@@ -109,12 +289,12 @@ public class WorldRenderer implements Disposable
 	}
 
 	/**
-	 * Responsible for render score gui element
+	 * Responsible for render score gui icon
 	 * 
 	 * @param batch
 	 *            Spritebatch object being used to draw
 	 */
-	private void renderGuiScore(SpriteBatch batch)
+	private void renderGuiScoreIcon(SpriteBatch batch)
 	{
 		float x = -15;
 		float y = -15;
@@ -130,7 +310,20 @@ public class WorldRenderer implements Disposable
 		}
 
 		batch.draw(Assets.instance.goldCoin.goldCoin, x, y, offsetX, offsetY, 100, 100, 0.35f, -0.35f, 0);
-		Assets.instance.fonts.defaultBig.draw(batch, "" + (int) worldController.scoreVisual, x + 75, y + 37);
+	}
+
+	/**
+	 * Responsible for render score gui text
+	 * 
+	 * @param batch
+	 *            Spritebatch object being used to draw
+	 */
+	private void renderGuiScoreText(SpriteBatch batch)
+	{
+		float x = -15;
+		float y = -15;
+		scoreText.setValue(Assets.instance.fonts.defaultBig, (int) worldController.scoreVisual);
+		scoreText.draw(batch, x + 75, y + 37);
 	}
 
 	/**
@@ -176,22 +369,21 @@ public class WorldRenderer implements Disposable
 		float x = cameraGUI.viewportWidth - 55;
 		float y = cameraGUI.viewportHeight - 15;
 		int fps = Gdx.graphics.getFramesPerSecond();
-		BitmapFont fpsFont = Assets.instance.fonts.defaultNormal;
 		if (fps >= 45)
 		{
 			// 45 or more FPS show up in green
-			fpsFont.setColor(0, 1, 0, 1);
+			fpsText.setColor(0, 1, 0, 1);
 		} else if (fps >= 30)
 		{
 			// 30 or more FPS show up in yellow
-			fpsFont.setColor(1, 1, 0, 1);
+			fpsText.setColor(1, 1, 0, 1);
 		} else
 		{
 			// less than 30 FPS show up in red
-			fpsFont.setColor(1, 0, 0, 1);
+			fpsText.setColor(1, 0, 0, 1);
 		}
-		fpsFont.draw(batch, "FPS: " + fps, x, y);
-		fpsFont.setColor(1, 1, 1, 1); // white
+		fpsText.setValue(Assets.instance.fonts.defaultNormal, fps);
+		fpsText.draw(batch, x, y);
 	}
 
 	/**
@@ -202,24 +394,40 @@ public class WorldRenderer implements Disposable
 	 */
 	private void renderGui(SpriteBatch batch)
 	{
+		Texture objectsTexture = Assets.instance.objectsTexture;
 		batch.setProjectionMatrix(cameraGUI.combined);
 		batch.begin();
 		// draw collected gold coins icokn + text
 		// (anchored to top left edge)
-		renderGuiScore(batch);
+		guiQueue.add(GUI_LAYER, objectsTexture, false, guiScoreIcon);
+		guiQueue.add(GUI_LAYER, fontTexture(Assets.instance.fonts.defaultBig), false, guiScoreText);
 		// draw collected feather icon (anchored to top left edge)
-		renderGuiFeatherPowerup(batch);
+		if (worldController.level.bunnyHead.timeLeftFeatherPowerup > 0)
+		{
+			guiQueue.add(GUI_LAYER, objectsTexture, false, guiFeatherIcon);
+			guiQueue.add(GUI_LAYER, fontTexture(Assets.instance.fonts.defaultSmall), false, guiFeatherText);
+		}
 		// draw extra lives incom + text (anchored to top right edge)
-		renderGuiExtraLive(batch);
+		guiQueue.add(GUI_LAYER, objectsTexture, false, guiExtraLives);
 		// draw FPS text (anchored to bottom right edge)
 		if (GamePreferences.instance.showFpsCounter)
-			;
-		renderGuiFpsCounter(batch);
+			guiQueue.add(GUI_LAYER, fontTexture(Assets.instance.fonts.defaultNormal), false, guiFpsCounter);
 		// draw game over text
-		renderGuiGameOverMessage(batch);
+		if (worldController.isGameOver())
+			guiQueue.add(GUI_LAYER, fontTexture(Assets.instance.fonts.defaultBig), false, guiGameOverMessage);
+		guiQueue.render(batch);
+		stats.textureSwitches += guiQueue.textureSwitches;
 		batch.end();
 	}
 
+	/**
+	 * Returns the texture a font draws its glyphs from
+	 */
+	private static Texture fontTexture(BitmapFont font)
+	{
+		return font.getRegion().getTexture();
+	}
+
 	/**
 	 * Renders a game over message on the screen when called
 	 * 
@@ -240,43 +448,58 @@ public class WorldRenderer implements Disposable
 	}
 
 	/**
-	 * If the feather powerup is active this handle showing the powerup
+	 * If the feather powerup is active this handle showing the powerup icon
 	 * 
 	 * @param batch
 	 *            the spritebatch object being used to draw
 	 */
-	private void renderGuiFeatherPowerup(SpriteBatch batch)
+	private void renderGuiFeatherPowerupIcon(SpriteBatch batch)
 	{
 		float x = -15;
 		float y = 30;
 		float timeLeftFeatherPowerup = worldController.level.bunnyHead.timeLeftFeatherPowerup;
 
-		if (timeLeftFeatherPowerup > 0)
+		/*
+		 * start icon fade in/out if the left power-up time is less than 4 seconds. The
+		 * fade interval is set to 5 changes per second
+		 */
+		if (timeLeftFeatherPowerup < 4)
 		{
-			/*
-			 * start icon fade in/out if the left power-up time is less than 4 seconds. The
-			 * fade interval is set to 5 changes per second
-			 */
-			if (timeLeftFeatherPowerup < 4)
+			if (((int) (timeLeftFeatherPowerup * 5) % 2) != 0)
 			{
-				if (((int) (timeLeftFeatherPowerup * 5) % 2) != 0)
-				{
-					batch.setColor(1, 1, 1, 0.5f);
-				}
+				batch.setColor(1, 1, 1, 0.5f);
 			}
-
-			batch.draw(Assets.instance.feather.feather, x, y, 50, 50, 100, 100, 0.35f, -0.35f, 0);
-			batch.setColor(1, 1, 1, 1);
-			Assets.instance.fonts.defaultSmall.draw(batch, "" + (int) timeLeftFeatherPowerup, x + 60, y + 57);
 		}
+
+		batch.draw(Assets.instance.feather.feather, x, y, 50, 50, 100, 100, 0.35f, -0.35f, 0);
+		batch.setColor(1, 1, 1, 1);
+	}
+
+	/**
+	 * If the feather powerup is active this handle showing the seconds left
+	 * 
+	 * @param batch
+	 *            the spritebatch object being used to draw
+	 */
+	private void renderGuiFeatherPowerupText(SpriteBatch batch)
+	{
+		float x = -15;
+		float y = 30;
+		float timeLeftFeatherPowerup = worldController.level.bunnyHead.timeLeftFeatherPowerup;
+		featherText.setValue(Assets.instance.fonts.defaultSmall, (int) timeLeftFeatherPowerup);
+		featherText.draw(batch, x + 60, y + 57);
 	}
 
 	/**
-	 * Calls for the batch to be disposed of
+	 * Calls for the batch and the cached level geometry to be disposed of
 	 */
 	@Override
 	public void dispose()
 	{
 		batch.dispose();
+		if (staticGeometry != null)
+			staticGeometry.dispose();
+		if (profilerOverlay != null)
+			profilerOverlay.dispose();
 	}
 }
@@ -7,6 +7,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.graphics.g2d.Animation;
+import com.packetpub.libgdx.canyonbunny.game.RenderQueue;
 
 /**
  * Makes an abstract class for all game objects to structure themselves around
@@ -14,7 +15,7 @@ import com.badlogic.gdx.graphics.g2d.Animation;
  * @author Tyler Forrester
  *
  */
-public abstract class AbstractGameObject
+public abstract class AbstractGameObject implements RenderQueue.Command
 {
 
 	public Vector2 position;
@@ -33,6 +34,14 @@ public abstract class AbstractGameObject
 	public float stateTime;
 	public Animation<TextureRegion> animation;
 
+	// state at the start of the current simulation step, used to draw
+	// positions in between two steps
+	public Vector2 previousPosition;
+	public float previousRotation;
+	private boolean hasPreviousState;
+	private Vector2 simulatedPosition;
+	private float simulatedRotation;
+
 	/**
 	 * Builds the game object
 	 */
@@ -48,6 +57,61 @@ public abstract class AbstractGameObject
 		friction = new Vector2();
 		acceleration = new Vector2();
 		bounds = new Rectangle();
+		previousPosition = new Vector2();
+		simulatedPosition = new Vector2();
+	}
+
+	/**
+	 * Tells whether the object may be seen inside a view rectangle. The test is
+	 * loose, the object is taken to reach its full size past its position in
+	 * every direction, which covers drawing offsets, scaling and rotation.
+	 * 
+	 * @param view
+	 *            visible part of the world
+	 * @return false if the object is certainly outside the view
+	 */
+	public boolean isVisible(Rectangle view)
+	{
+		float extent = Math.max(dimension.x * Math.abs(scale.x), dimension.y * Math.abs(scale.y));
+		return position.x - extent < view.x + view.width && position.x + extent > view.x
+				&& position.y - extent < view.y + view.height && position.y + extent > view.y;
+	}
+
+	/**
+	 * Remembers the current position and rotation as the state at the start of
+	 * a simulation step
+	 */
+	public void storePreviousState()
+	{
+		previousPosition.set(position);
+		previousRotation = rotation;
+		hasPreviousState = true;
+	}
+
+	/**
+	 * Moves the object in between its previous and current state for drawing.
+	 * Must be followed by endInterpolation() once drawing is done.
+	 * 
+	 * @param alpha
+	 *            how far to go from the previous to the current state, 0 to 1
+	 */
+	public void beginInterpolation(float alpha)
+	{
+		simulatedPosition.set(position);
+		simulatedRotation = rotation;
+		if (!hasPreviousState)
+			return;
+		position.set(previousPosition).lerp(simulatedPosition, alpha);
+		rotation = previousRotation + (simulatedRotation - previousRotation) * alpha;
+	}
+
+	/**
+	 * Puts the object back into its current state after drawing
+	 */
+	public void endInterpolation()
+	{
+		position.set(simulatedPosition);
+		rotation = simulatedRotation;
 	}
 
 	/**
@@ -136,5 +200,6 @@ public abstract class AbstractGameObject
 	 * @param batch
 	 *            is the sprite batch it uses
 	 */
+	@Override
 	public abstract void render(SpriteBatch batch);
 }
@@ -6,7 +6,7 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.packetpub.libgdx.canyonbunny.game.Assets;
 import com.packetpub.libgdx.canyonbunny.util.Constants;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
 import com.badlogic.gdx.math.MathUtils;
 import com.packetpub.libgdx.canyonbunny.util.AudioManager;
 import com.badlogic.gdx.graphics.g2d.Animation;
@@ -47,7 +47,7 @@ public class BunnyHead extends AbstractGameObject
 	public JUMP_STATE jumpState;
 	public boolean hasFeatherPowerup;
 	public float timeLeftFeatherPowerup;
-	public ParticleEffect dustParticles = new ParticleEffect();
+	public PooledEffect dustParticles;
 
 	public BunnyHead()
 	{
@@ -77,6 +77,20 @@ public class BunnyHead extends AbstractGameObject
 		terminalVelocity.set(3.0f, 4.0f);
 		friction.set(12.0f, 0.0f);
 		acceleration.set(0.0f, -25.0f);
+
+		// Particles, shared images from the pool
+		if (dustParticles == null)
+			dustParticles = Assets.instance.particles.dust.obtain();
+
+		reset();
+	}
+
+	/**
+	 * Puts the bunny back into its starting state, without loading anything
+	 */
+	public void reset()
+	{
+		velocity.set(0, 0);
 		// View direction
 		viewDirection = VIEW_DIRECTION.RIGHT;
 		// Jump state
@@ -85,12 +99,21 @@ public class BunnyHead extends AbstractGameObject
 		// Power-ups
 		hasFeatherPowerup = false;
 		timeLeftFeatherPowerup = 0;
-		// Power-ups
-		hasFeatherPowerup = false;
-		timeLeftFeatherPowerup = 0;
-
+		setAnimation(animNormal);
 		// Particles
-		dustParticles.load(Gdx.files.internal("particles/dust.pfx"), Gdx.files.internal("particles"));
+		dustParticles.reset();
+	}
+
+	/**
+	 * Gives the dust particles back to their pool, call once the bunny is no
+	 * longer used
+	 */
+	public void freeParticles()
+	{
+		if (dustParticles == null)
+			return;
+		dustParticles.free();
+		dustParticles = null;
 	}
 
 	/**
@@ -274,13 +297,20 @@ public class BunnyHead extends AbstractGameObject
 		// Reset color to white
 		batch.setColor(1, 1, 1, 1);
 
-		// Draw Particles
-		dustParticles.draw(batch);
-
 		// Apply Skin Color
 		//TODO
-		
-		
+	}
+
+	/**
+	 * Draws the dust particles. They are drawn on top of the bunny, but with
+	 * their own texture, so the level queues them separately.
+	 * 
+	 * @param batch
+	 *            Spritebatch object
+	 */
+	public void renderParticles(SpriteBatch batch)
+	{
+		dustParticles.draw(batch);
 	}
 
 }
@@ -2,6 +2,7 @@ package com.packetpub.libgdx.canyonbunny.game.objects;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool.Poolable;
 import com.packetpub.libgdx.canyonbunny.game.Assets;
 
 /**
@@ -9,7 +10,7 @@ import com.packetpub.libgdx.canyonbunny.game.Assets;
  * @author Tyler99c
  *
  */
-public class Carrot extends AbstractGameObject 
+public class Carrot extends AbstractGameObject implements Poolable
 {
 	private TextureRegion regCarrot;
 
@@ -35,6 +36,19 @@ public class Carrot extends AbstractGameObject
 		origin.set(dimension.x/2,dimension.y /2);
 	}
 	
+	/**
+	 * Switches the body off when the carrot goes back to its pool, the body
+	 * is kept for the next time the carrot is used
+	 */
+	@Override
+	public void reset()
+	{
+		if (body != null)
+			body.setActive(false);
+		scale.set(1, 1);
+		rotation = 0;
+	}
+
 	/**
 	 * Draws carrot
 	 */
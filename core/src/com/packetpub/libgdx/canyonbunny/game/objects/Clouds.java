@@ -3,6 +3,7 @@ package com.packetpub.libgdx.canyonbunny.game.objects;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.packetpub.libgdx.canyonbunny.game.Assets;
@@ -140,6 +141,70 @@ public class Clouds extends AbstractGameObject
 			cloud.render(batch);
 	}
 
+	/**
+	 * Renders only the clouds inside a view rectangle.
+	 * 
+	 * @param batch
+	 *            The spritebatch being used to draw the clouds.
+	 * @param view
+	 *            Visible part of the world.
+	 * @return The number of clouds drawn.
+	 */
+	public int render(SpriteBatch batch, Rectangle view)
+	{
+		int drawn = 0;
+		for (Cloud cloud : clouds)
+		{
+			if (!cloud.isVisible(view))
+				continue;
+			cloud.render(batch);
+			drawn++;
+		}
+		return drawn;
+	}
+
+	/**
+	 * Returns the number of clouds in the container
+	 */
+	public int getCloudCount()
+	{
+		return clouds.size;
+	}
+
+	/**
+	 * Remembers the position of every cloud at the start of a simulation step
+	 */
+	@Override
+	public void storePreviousState()
+	{
+		for (Cloud cloud : clouds)
+			cloud.storePreviousState();
+	}
+
+	/**
+	 * Moves every cloud in between its previous and current position for
+	 * drawing. A cloud spawned during the last step is drawn where it is.
+	 * 
+	 * @param alpha
+	 *            how far to go from the previous to the current state, 0 to 1
+	 */
+	@Override
+	public void beginInterpolation(float alpha)
+	{
+		for (Cloud cloud : clouds)
+			cloud.beginInterpolation(alpha);
+	}
+
+	/**
+	 * Puts every cloud back into its current position after drawing
+	 */
+	@Override
+	public void endInterpolation()
+	{
+		for (Cloud cloud : clouds)
+			cloud.endInterpolation();
+	}
+
 	/**
 	 * Iterates through each cloud and updates them, then checks if they've reached
 	 * the end of the level or not, removing and spawning a new one if so.
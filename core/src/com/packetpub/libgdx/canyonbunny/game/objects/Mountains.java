@@ -1,8 +1,11 @@
 package com.packetpub.libgdx.canyonbunny.game.objects;
 
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.packetpub.libgdx.canyonbunny.game.Assets;
 import com.badlogic.gdx.math.Vector2;
 
@@ -17,6 +20,15 @@ public class Mountains extends AbstractGameObject
 
 	private int length;
 
+	// offsetX, offsetY, tint and parallax speed of each layer, back to front
+	private static final float[][] LAYERS = {
+			// distant mountains (dark gray)
+			{ 0.5f, 0.5f, 0.5f, 0.8f },
+			// distant mountains (gray)
+			{ 0.25f, 0.25f, 0.7f, 0.5f },
+			// distant mountains (light gray)
+			{ 0.0f, 0.0f, 0.9f, 0.3f } };
+
 	/**
 	 * Constructor, gets length then calls init method
 	 * 
@@ -45,21 +57,96 @@ public class Mountains extends AbstractGameObject
 	}
 
 	/**
-	 * Draws the mountain background
+	 * Returns the number of left/right mountain pairs a layer needs to span the
+	 * whole level
+	 */
+	private int getPairCount(float offsetX, float parallaxSpeedX)
+	{
+		int mountainLength = 0;
+		mountainLength += MathUtils.ceil(length / (2 * dimension.x) * (1 - parallaxSpeedX));
+		mountainLength += MathUtils.ceil(0.5f + offsetX);
+		return mountainLength;
+	}
+
+	/**
+	 * Draws one left/right mountain pair, untinted, filling a rectangle. Used
+	 * to render the pair into a texture that is repeated along each layer.
+	 * 
+	 * @param batch
+	 *            the batch to draw with
+	 * @param x
+	 *            left edge of the rectangle
+	 * @param y
+	 *            bottom edge of the rectangle
+	 * @param width
+	 *            width of the rectangle, each mountain gets half
+	 * @param height
+	 *            height of the rectangle
+	 */
+	public void drawPair(Batch batch, float x, float y, float width, float height)
+	{
+		batch.draw(regMountainLeft, x, y, width / 2, height);
+		batch.draw(regMountainRight, x + width / 2, y, width / 2, height);
+	}
+
+	/**
+	 * Draws each layer as a single quad covering the part of the layer inside
+	 * the view, textured with a repeating strip of one mountain pair.
 	 * 
 	 * @param batch
 	 *            the spritebatch object
+	 * @param view
+	 *            visible part of the world
+	 * @param pairStrip
+	 *            texture holding one pair as drawn by drawPair(), set to
+	 *            repeat horizontally
+	 */
+	public void render(SpriteBatch batch, Rectangle view, Texture pairStrip)
+	{
+		float pairWidth = 2 * dimension.x;
+		for (float[] params : LAYERS)
+		{
+			float start = origin.x + dimension.x * params[0] + position.x * params[3];
+			float end = start + getPairCount(params[0], params[3]) * pairWidth;
+			float y = origin.y + dimension.y * params[1] + position.y;
+			float left = Math.max(start, view.x);
+			float right = Math.min(end, view.x + view.width);
+			if (right <= left || y > view.y + view.height || y + dimension.y < view.y)
+				continue;
+
+			// u counts mountain pairs from the start of the layer. Whole
+			// pairs are dropped so it stays small on long levels.
+			float u = (left - start) / pairWidth;
+			float u2 = (right - start) / pairWidth;
+			int skipped = MathUtils.floor(u);
+			float tintColor = params[2];
+			batch.setColor(tintColor, tintColor, tintColor, 1);
+			// the strip is a frame buffer texture, stored bottom row first
+			batch.draw(pairStrip, left, y, right - left, dimension.y, u - skipped, 0, u2 - skipped, 1);
+		}
+		// reset color to white
+		batch.setColor(1, 1, 1, 1);
+	}
+
+	/**
+	 * Draws the mountain in the scenens correctly. Only the pieces inside the
+	 * view are drawn, all of them if the view is null.
+	 * 
+	 * @param batch
+	 *            the spritebatch object
+	 * @param view
+	 *            visible part of the world, or null
 	 * @param offsetX
 	 *            x offset for drawing the mountains
 	 * @param offsetY
 	 *            y offset for drawing the mountains
 	 * @param tintColor
 	 *            desired tint to mountains
+	 * @param parallaxSpeedX
+	 *            how fast the layer follows the camera
 	 */
-	/**
-	 * Draws the mountain in the scenens correctly
-	 */
-	private void drawMountain(SpriteBatch batch, float offsetX, float offsetY, float tintColor, float parallaxSpeedX)
+	private void drawMountain(SpriteBatch batch, Rectangle view, float offsetX, float offsetY, float tintColor,
+			float parallaxSpeedX)
 	{
 		TextureRegion reg = null;
 		batch.setColor(tintColor, tintColor, tintColor, 1);
@@ -67,10 +154,22 @@ public class Mountains extends AbstractGameObject
 		float yRel = dimension.y * offsetY;
 
 		// mountains span the whole level
-		int mountainLength = 0;
-		mountainLength += MathUtils.ceil(length / (2 * dimension.x) * (1 - parallaxSpeedX));
-		mountainLength += MathUtils.ceil(0.5f + offsetX);
-		for (int i = 0; i < mountainLength; i++)
+		int mountainLength = getPairCount(offsetX, parallaxSpeedX);
+
+		// skip the left/right pairs outside the view
+		int first = 0;
+		int last = mountainLength - 1;
+		if (view != null)
+		{
+			float pairStart = origin.x + xRel + position.x * parallaxSpeedX;
+			float pairWidth = 2 * dimension.x;
+			first = Math.max(first, MathUtils.floor((view.x - pairStart) / pairWidth));
+			last = Math.min(last, MathUtils.floor((view.x + view.width - pairStart) / pairWidth));
+			if (view.y > origin.y + yRel + position.y + dimension.y || view.y + view.height < origin.y + yRel + position.y)
+				last = first - 1;
+			xRel += first * pairWidth;
+		}
+		for (int i = first; i <= last; i++)
 		{
 
 			// mountain left
@@ -99,14 +198,20 @@ public class Mountains extends AbstractGameObject
 	@Override
 	public void render(SpriteBatch batch)
 	{
-		// distant mountains (dark gray)
-		drawMountain(batch, 0.5f, 0.5f, 0.5f, 0.8f);
-
-		// distant mountains (gray)
-		drawMountain(batch, 0.25f, 0.25f, 0.7f, 0.5f);
+		render(batch, null);
+	}
 
-		// distant mountains (light gray)
-		drawMountain(batch, 0.0f, 0.0f, 0.9f, 0.3f);
+	/**
+	 * Calls the draw mountain method for the part of each layer inside a view
+	 * 
+	 * @param batch
+	 * @param view
+	 *            visible part of the world, null to draw everything
+	 */
+	public void render(SpriteBatch batch, Rectangle view)
+	{
+		for (float[] params : LAYERS)
+			drawMountain(batch, view, params[0], params[1], params[2], params[3]);
 	}
 
 	/**
@@ -4,7 +4,9 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.packetpub.libgdx.canyonbunny.game.Assets;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
 
 /**
  * Contains the information for creating and modifying the Rock object. (the
@@ -19,6 +21,11 @@ public class Rock extends AbstractGameObject
 
 	private final float FLOAT_CYCLE_TIME = 2.0f;
 	private final float FLOAT_AMPLITUDE = 0.25f;
+	// the float velocity is scaled by this every simulation step
+	private static final float FLOAT_DAMPING = 0.98f;
+	// floats of one piece in the batch's vertex layout: x, y, color, u, v for
+	// each corner
+	private static final int QUAD_SIZE = 20;
 
 	private float floatCycleTimeLeft;
 	private boolean floatingDownwards;
@@ -26,6 +33,17 @@ public class Rock extends AbstractGameObject
 
 	private int length;
 
+	// the pieces of the rock as batch vertices, laid out at the x they were
+	// built for. Floating only moves the rock up and down, so each frame just
+	// the y values are set.
+	private float[] vertices;
+	private float verticesX;
+	private float verticesColor;
+
+	// far from the camera the body is switched off and update() is not called
+	private boolean active;
+	private float inactiveSince;
+
 	/**
 	 * Constructor for rock object.
 	 */
@@ -50,6 +68,7 @@ public class Rock extends AbstractGameObject
 		floatingDownwards = false;
 		floatCycleTimeLeft = MathUtils.random(0, FLOAT_CYCLE_TIME / 2);
 		floatTargetPosition = null;
+		active = true;
 	}
 
 	/**
@@ -61,10 +80,35 @@ public class Rock extends AbstractGameObject
 	public void setLength(int length)
 	{
 		this.length = length;
+		vertices = null;
 		// Update bounding box for collision detection
 		bounds.set(0, 0, dimension.x * length, dimension.y);
 	}
 
+	/**
+	 * Tells whether any part of the rock, edges included, is inside a view
+	 * rectangle
+	 * 
+	 * @param view
+	 *            visible part of the world
+	 */
+	@Override
+	public boolean isVisible(Rectangle view)
+	{
+		float left = position.x - dimension.x / 4;
+		float right = position.x + length * dimension.x + dimension.x / 4;
+		return left < view.x + view.width && right > view.x && position.y < view.y + view.height
+				&& position.y + dimension.y > view.y;
+	}
+
+	/**
+	 * Returns how wide (in meters) the rock is.
+	 */
+	public int getLength()
+	{
+		return length;
+	}
+
 	/**
 	 * Increase the length of a rock.
 	 * 
@@ -77,8 +121,8 @@ public class Rock extends AbstractGameObject
 	}
 
 	/**
-	 * Renders the rock object, by drawing the left edge, a certain amount of middle
-	 * edges, and then
+	 * Renders the rock object, the left edge, a certain amount of middle pieces
+	 * and the mirrored right edge, in one batch call
 	 * 
 	 * @param batch
 	 *            SpriteBatch being used to draw the rock.
@@ -86,34 +130,168 @@ public class Rock extends AbstractGameObject
 	@Override
 	public void render(SpriteBatch batch)
 	{
-		TextureRegion reg = null;
+		float color = batch.getPackedColor();
+		if (vertices == null || verticesX != position.x || verticesColor != color)
+			buildVertices(color);
 
-		float relX = 0;
-		float relY = 0;
+		float bottom = position.y;
+		float top = position.y + dimension.y;
+		for (int i = 0; i < vertices.length; i += QUAD_SIZE)
+		{
+			vertices[i + 1] = bottom;
+			vertices[i + 6] = top;
+			vertices[i + 11] = top;
+			vertices[i + 16] = bottom;
+		}
+		batch.draw(regEdge.getTexture(), vertices, 0, vertices.length);
+	}
+
+	/**
+	 * Lays out the pieces of the rock at its current x, the y is set when
+	 * drawing
+	 */
+	private void buildVertices(float color)
+	{
+		if (vertices == null || vertices.length != (length + 2) * QUAD_SIZE)
+			vertices = new float[(length + 2) * QUAD_SIZE];
+		verticesX = position.x;
+		verticesColor = color;
 
-		// Draw left edge
-		reg = regEdge;
-		relX -= dimension.x / 4;
-		batch.draw(reg.getTexture(), position.x + relX, position.y + relY, origin.x, origin.y, dimension.x / 4 + 0.1f,
-				dimension.y, scale.x, scale.y, rotation, reg.getRegionX(), reg.getRegionY(), reg.getRegionWidth(),
-				reg.getRegionHeight(), false, false);
+		// left edge
+		int offset = 0;
+		float x = position.x - dimension.x / 4;
+		offset = addQuad(offset, x, x + dimension.x / 4 + 0.1f, regEdge, false, color);
 
-		// Draw middle
-		relX = 0;
-		reg = regMiddle;
+		// middle
+		x = position.x;
 		for (int i = 0; i < length; i++)
 		{
-			batch.draw(reg.getTexture(), position.x + relX, position.y + relY, origin.x, origin.y, dimension.x + 0.1f,
-					dimension.y, scale.x, scale.y, rotation, reg.getRegionX(), reg.getRegionY(), reg.getRegionWidth(),
-					reg.getRegionHeight(), false, false);
-			relX += dimension.x;
+			offset = addQuad(offset, x, x + dimension.x + 0.1f, regMiddle, false, color);
+			x += dimension.x;
 		}
 
-		// Draw right edge
-		reg = regEdge;
-		batch.draw(reg.getTexture(), position.x + relX, position.y + relY, origin.x + dimension.x / 8, origin.y,
-				dimension.x / 4, dimension.y, scale.x, scale.y, rotation, reg.getRegionX(), reg.getRegionY(),
-				reg.getRegionWidth(), reg.getRegionHeight(), true, false);
+		// right edge, mirrored
+		addQuad(offset, x, x + dimension.x / 4, regEdge, true, color);
+	}
+
+	/**
+	 * Writes the corners of one piece, in the order SpriteBatch draws them
+	 * 
+	 * @return offset of the next piece
+	 */
+	private int addQuad(int offset, float x, float x2, TextureRegion reg, boolean flipX, float color)
+	{
+		float u = flipX ? reg.getU2() : reg.getU();
+		float u2 = flipX ? reg.getU() : reg.getU2();
+		float[] v = vertices;
+		// bottom left, top left, top right, bottom right
+		v[offset] = x;
+		v[offset + 2] = color;
+		v[offset + 3] = u;
+		v[offset + 4] = reg.getV2();
+		v[offset + 5] = x;
+		v[offset + 7] = color;
+		v[offset + 8] = u;
+		v[offset + 9] = reg.getV();
+		v[offset + 10] = x2;
+		v[offset + 12] = color;
+		v[offset + 13] = u2;
+		v[offset + 14] = reg.getV();
+		v[offset + 15] = x2;
+		v[offset + 17] = color;
+		v[offset + 18] = u2;
+		v[offset + 19] = reg.getV2();
+		return offset + QUAD_SIZE;
+	}
+
+	/**
+	 * Restarts the floating motion from the rock's current position
+	 */
+	public void resetFloating()
+	{
+		floatingDownwards = false;
+		if (floatTargetPosition != null)
+			floatTargetPosition.set(position);
+	}
+
+	/**
+	 * Tells whether the rock is being updated
+	 */
+	public boolean isActive()
+	{
+		return active;
+	}
+
+	/**
+	 * Stops the rock, it keeps its place until activate() is called
+	 * 
+	 * @param time
+	 *            Current level time in seconds.
+	 */
+	public void deactivate(float time)
+	{
+		active = false;
+		inactiveSince = time;
+		if (body != null)
+			body.setActive(false);
+		// nothing moves until the rock is active again
+		storePreviousState();
+	}
+
+	/**
+	 * Starts updating the rock again. It is put where it would have floated to
+	 * had it been updated all along.
+	 * 
+	 * @param time
+	 *            Current level time in seconds.
+	 */
+	public void activate(float time)
+	{
+		active = true;
+		if (body == null)
+			return;
+		advanceFloating(time - inactiveSince);
+		body.setActive(true);
+		storePreviousState();
+	}
+
+	/**
+	 * Moves the floating motion of the body forward the way update() would
+	 * have over some time, without stepping through it
+	 * 
+	 * @param seconds
+	 *            Time to move forward by.
+	 */
+	private void advanceFloating(float seconds)
+	{
+		float stepTime = 1.0f / Constants.SIMULATION_TICK_RATE;
+		// velocity of the next step
+		float speed = body.getLinearVelocity().y * FLOAT_DAMPING;
+		float y = body.getPosition().y;
+		boolean flipped = false;
+		while (seconds > 0)
+		{
+			float time = Math.min(seconds, floatCycleTimeLeft);
+			// the velocity decays geometrically, sum up the steps
+			float decay = (float) Math.pow(FLOAT_DAMPING, time / stepTime);
+			y += speed * stepTime * (1 - decay) / (1 - FLOAT_DAMPING);
+			speed *= decay;
+			seconds -= time;
+			floatCycleTimeLeft -= time;
+			if (floatCycleTimeLeft > 0)
+				break;
+
+			floatCycleTimeLeft = FLOAT_CYCLE_TIME;
+			floatingDownwards = !floatingDownwards;
+			speed = FLOAT_AMPLITUDE * (floatingDownwards ? -1 : 1);
+			// a cycle down and a cycle up end where they started
+			if (!flipped)
+				seconds %= 2 * FLOAT_CYCLE_TIME;
+			flipped = true;
+		}
+		position.y = y;
+		body.setTransform(position.x, y, body.getAngle());
+		body.setLinearVelocity(0, speed / FLOAT_DAMPING);
 	}
 
 	/**
@@ -2,7 +2,6 @@ package com.packetpub.libgdx.canyonbunny.screens;
 
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.Game;
-import com.badlogic.gdx.assets.AssetManager;
 import com.packetpub.libgdx.canyonbunny.game.Assets;
 
 /**
@@ -46,18 +45,19 @@ public abstract class AbstractGameScreen implements Screen
 	public abstract void pause();
 
 	/**
-	 * Resumes the game from being paused
+	 * Resumes the game from being paused. The assets are still loaded, only
+	 * the textures may have been uploaded again.
 	 */
 	public void resume()
 	{
-		Assets.instance.init(new AssetManager());
+		Assets.instance.resume();
 	}
 
 	/**
-	 * Gets rid of unused elements
+	 * Frees what the screen keeps between being hidden and shown again. The
+	 * assets are shared by all screens and freed by the game.
 	 */
 	public void dispose()
 	{
-		Assets.instance.dispose();
 	}
 }
@@ -2,8 +2,12 @@ package com.packetpub.libgdx.canyonbunny.screens;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
 import com.packetpub.libgdx.canyonbunny.util.GamePreferences;
+import com.packetpub.libgdx.canyonbunny.util.TelemetryRecorder;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.packetpub.libgdx.canyonbunny.game.Level;
 import com.packetpub.libgdx.canyonbunny.game.WorldController;
 import com.packetpub.libgdx.canyonbunny.game.WorldRenderer;
 
@@ -23,6 +27,16 @@ public class GameScreen extends AbstractGameScreen
 
 	private boolean paused;
 
+	// simulation time that has passed but not been simulated yet
+	private float accumulator;
+
+	// level loaded by the loading screen, played from the next show(). Null
+	// to play the level from before again, or to load it when first shown.
+	private Level level;
+
+	// writes per-frame numbers to a file, null unless enabled
+	private TelemetryRecorder telemetry;
+
 	/**
 	 * Constructor for gamescreen, simply passes game to the constructor of the
 	 * parent class
@@ -35,28 +49,93 @@ public class GameScreen extends AbstractGameScreen
 		super(game);
 	}
 
+	/**
+	 * Constructor for a gamescreen that plays an already loaded level
+	 * 
+	 * @param game
+	 *            game object to be passed
+	 * @param level
+	 *            the loaded level
+	 */
+	public GameScreen(Game game, Level level)
+	{
+		super(game);
+		this.level = level;
+	}
+
+	/**
+	 * Sets a loaded level to play from the next time the screen is shown
+	 * 
+	 * @param level
+	 *            the loaded level
+	 */
+	public void setLevel(Level level)
+	{
+		this.level = level;
+	}
+
+	/**
+	 * Tells whether a level is loaded, so showing the screen starts playing
+	 * without loading anything
+	 */
+	public boolean hasLevel()
+	{
+		return level != null || worldController != null;
+	}
+
 	/**
 	 * Will cause rendering functions to occur via worldController's update method
-	 * It will not call the update method if the game is paused
+	 * It will not call the update method if the game is paused. The game world
+	 * is updated in fixed steps, however long the frame took.
 	 */
 	@Override
 	public void render(float deltaTime)
 	{
+		float step = 1.0f / Constants.SIMULATION_TICK_RATE;
+		long updateStart = TimeUtils.nanoTime();
+		int steps = 0;
 		// Do not update game world when paused
 		if (!paused)
 		{
-			// Update game world by the time that has passed since last update
-			worldController.update(deltaTime);
+			// Update game world in fixed steps for the time that has passed since
+			// last update
+			accumulator += deltaTime;
+			while (accumulator >= step)
+			{
+				if (steps == Constants.SIMULATION_MAX_STEPS_PER_FRAME)
+				{
+					// Too far behind, drop the time that is left
+					accumulator = 0;
+					break;
+				}
+				worldController.update(step);
+				accumulator -= step;
+				steps++;
+				// The update may have left this screen, which pauses or
+				// hides it
+				if (paused)
+					break;
+			}
 		}
 
+		long renderStart = TimeUtils.nanoTime();
+
 		// Sets the clear screen color to Cornflower Blue
 		Gdx.gl.glClearColor(0x64 / 255.0f, 0x95 / 255.0f, 0xed / 255.0f, 0xff / 255.0f);
 
 		// Clears the screen
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-		// Render game world to screen
-		worldRenderer.render();
+		// Render game world to screen, in between the last two steps
+		worldRenderer.render(accumulator / step);
+
+		if (telemetry != null)
+		{
+			long renderEnd = TimeUtils.nanoTime();
+			telemetry.record((long) (Gdx.graphics.getRawDeltaTime() * 1000000000L), renderStart - updateStart,
+					renderEnd - renderStart, steps, worldController.level.rocks.size,
+					worldController.level.carrots.size, worldController.b2world.getBodyCount());
+		}
 	}
 
 	/**
@@ -69,25 +148,72 @@ public class GameScreen extends AbstractGameScreen
 	}
 
 	/**
-	 * Shows the game screen after we enter
+	 * Shows the game screen after we enter. The world and its renderer are
+	 * made once and kept, a level played before is reset from its snapshot.
 	 */
 	@Override
 	public void show()
 	{
-		worldController = new WorldController(game);
-		worldRenderer = new WorldRenderer(worldController);
+		if (level != null)
+		{
+			disposeWorld();
+			worldController = new WorldController(game, level);
+			level = null;
+		} else if (worldController == null)
+		{
+			worldController = new WorldController(game);
+		} else
+		{
+			worldController.init();
+		}
+		if (worldRenderer == null)
+			worldRenderer = new WorldRenderer(worldController);
+		// built here as the screen may later be drawn into a frame buffer
+		worldRenderer.updateStaticGeometry();
 		Gdx.input.setCatchBackKey(true);
+		accumulator = 0;
+		paused = false;
+		if (Constants.TELEMETRY)
+			telemetry = new TelemetryRecorder(Gdx.files.local(Constants.TELEMETRY_FILE).file(),
+					Constants.TELEMETRY_BUFFERED_FRAMES, Constants.TELEMETRY_MAX_FILE_BYTES,
+					Constants.TELEMETRY_KEPT_FILES);
 	}
 
 	/**
-	 * Causes game screen to be hidden and summarily disposed of
+	 * Causes game screen to be hidden, the world is kept until disposed of
 	 */
 	@Override
 	public void hide()
 	{
-		worldController.dispose();
-		worldRenderer.dispose();
+		// a hidden screen steps its world no more
+		paused = true;
 		Gdx.input.setCatchBackKey(false);
+		if (telemetry != null)
+		{
+			telemetry.close();
+			if (telemetry.droppedFrames > 0)
+				Gdx.app.log(TAG, "Telemetry dropped " + telemetry.droppedFrames + " frames");
+			telemetry = null;
+		}
+	}
+
+	/**
+	 * Frees the world and its renderer
+	 */
+	@Override
+	public void dispose()
+	{
+		disposeWorld();
+	}
+
+	private void disposeWorld()
+	{
+		if (worldController != null)
+			worldController.dispose();
+		if (worldRenderer != null)
+			worldRenderer.dispose();
+		worldController = null;
+		worldRenderer = null;
 	}
 
 	/**
@@ -106,8 +232,11 @@ public class GameScreen extends AbstractGameScreen
 	public void resume()
 	{
 		super.resume();
-		// Only called on android
+		// Called when the app comes back and when a screen transition into
+		// this screen ends
 		paused = false;
+		// the cached geometry is gone if the GL context was lost
+		worldRenderer.updateStaticGeometry();
 	}
 
 }
@@ -0,0 +1,200 @@
+package com.packetpub.libgdx.canyonbunny.screens;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.utils.Disposable;
+import com.packetpub.libgdx.canyonbunny.game.LevelLoader;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
+
+/**
+ * Screen shown while something loads, such as the assets at startup or a
+ * level. Runs a loading task a bit every frame, shows its progress as a bar
+ * and switches to the screen the task hands over once it is done.
+ *
+ * @author Tyler Forrester
+ *
+ */
+public class LoadingScreen extends AbstractGameScreen
+{
+	private static final String TAG = LoadingScreen.class.getName();
+
+	private static final float BAR_WIDTH = 400;
+	private static final float BAR_HEIGHT = 20;
+
+	/**
+	 * Work done while the loading screen is shown
+	 */
+	public interface Task extends Disposable
+	{
+		/**
+		 * Does the next part of the work, called once per frame from the render
+		 * thread
+		 *
+		 * @return true when the work is done
+		 */
+		public boolean update();
+
+		/**
+		 * Returns how far the work has come, from 0 to 1
+		 */
+		public float getProgress();
+
+		/**
+		 * Returns the screen to show once the work is done
+		 */
+		public Screen createNextScreen();
+	}
+
+	/**
+	 * Loads a level and then starts the game with it
+	 */
+	private static class LevelTask implements Task
+	{
+		private final Game game;
+		private final String filename;
+		private LevelLoader levelLoader;
+
+		public LevelTask(Game game, String filename)
+		{
+			this.game = game;
+			this.filename = filename;
+		}
+
+		@Override
+		public boolean update()
+		{
+			// the loader starts its thread right away, so it is made once the
+			// screen is shown
+			if (levelLoader == null)
+				levelLoader = new LevelLoader(filename);
+			return levelLoader.update();
+		}
+
+		@Override
+		public float getProgress()
+		{
+			return levelLoader == null ? 0 : levelLoader.getProgress();
+		}
+
+		@Override
+		public Screen createNextScreen()
+		{
+			GameScreen gameScreen = ScreenManager.getGameScreen(game);
+			gameScreen.setLevel(levelLoader.getLevel());
+			return gameScreen;
+		}
+
+		/**
+		 * Stops the loader thread
+		 */
+		@Override
+		public void dispose()
+		{
+			if (levelLoader != null)
+				levelLoader.dispose();
+		}
+	}
+
+	private OrthographicCamera camera;
+	private ShapeRenderer shapeRenderer;
+	private final Task task;
+	private boolean done;
+
+	/**
+	 * Constructor for the loading screen of the first level
+	 *
+	 * @param game
+	 *            game object to be passed
+	 */
+	public LoadingScreen(Game game)
+	{
+		this(game, new LevelTask(game, Constants.LEVEL_01));
+	}
+
+	/**
+	 * Constructor for a loading screen running any task
+	 *
+	 * @param game
+	 *            game object to be passed
+	 * @param task
+	 *            work to do, disposed of when the screen is hidden
+	 */
+	public LoadingScreen(Game game, Task task)
+	{
+		super(game);
+		this.task = task;
+	}
+
+	/**
+	 * Advances loading and draws the progress bar, switching to the next screen
+	 * once the task is done. The full bar is drawn while fading out.
+	 */
+	@Override
+	public void render(float deltaTime)
+	{
+		if (!done && task.update())
+		{
+			done = true;
+			game.setScreen(task.createNextScreen());
+			if (game.getScreen() != this)
+				return;
+		}
+
+		Gdx.gl.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+		float x = (Constants.VIEWPORT_GUI_WIDTH - BAR_WIDTH) / 2;
+		float y = (Constants.VIEWPORT_GUI_HEIGHT - BAR_HEIGHT) / 2;
+		shapeRenderer.setProjectionMatrix(camera.combined);
+		shapeRenderer.begin(ShapeType.Filled);
+		// bar background (dark gray)
+		shapeRenderer.setColor(0.25f, 0.25f, 0.25f, 1);
+		shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+		// progress (orange)
+		shapeRenderer.setColor(1, 0.75f, 0.25f, 1);
+		shapeRenderer.rect(x, y, BAR_WIDTH * (done ? 1 : task.getProgress()), BAR_HEIGHT);
+		shapeRenderer.end();
+	}
+
+	/**
+	 * The progress bar always fills the same part of the screen
+	 */
+	@Override
+	public void resize(int width, int height)
+	{
+	}
+
+	/**
+	 * Sets up the progress bar, the task starts with the first frame
+	 */
+	@Override
+	public void show()
+	{
+		camera = new OrthographicCamera();
+		camera.setToOrtho(false, Constants.VIEWPORT_GUI_WIDTH, Constants.VIEWPORT_GUI_HEIGHT);
+		shapeRenderer = new ShapeRenderer();
+	}
+
+	/**
+	 * Frees the renderer and the task
+	 */
+	@Override
+	public void hide()
+	{
+		shapeRenderer.dispose();
+		task.dispose();
+	}
+
+	/**
+	 * Loading screen does not need to be paused.
+	 */
+	@Override
+	public void pause()
+	{
+	}
+}
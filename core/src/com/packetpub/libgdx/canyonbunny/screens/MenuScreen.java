@@ -4,7 +4,6 @@ import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.ui.Button;
@@ -66,6 +65,7 @@ public class MenuScreen extends AbstractGameScreen
 	private SelectBox<CharacterSkin> selCharSkin;
 	private Image imgCharSkin;
 	private CheckBox chkShowFpsCounter;
+	private CheckBox chkShowProfiler;
 
 	// debug
 	private final float DEBUG_REBUILD_INTERVAL = 5.0f;
@@ -88,12 +88,6 @@ public class MenuScreen extends AbstractGameScreen
 	 */
 	private void rebuildStage()
 	{
-		skinCanyonBunny = new Skin(Gdx.files.internal(Constants.SKIN_CANYONBUNNY_UI),
-				new TextureAtlas(Constants.TEXTURE_ATLAS_UI));
-
-		skinLibgdx = new Skin(Gdx.files.internal(Constants.SKIN_LIBGDX_UI),
-				new TextureAtlas(Constants.TEXTURE_ATLAS_LIBGDX_UI));
-
 		// build all layers
 		Table layerBackground = buildBackgroundLayer();
 		Table layerObjects = buildObjectsLayer();
@@ -111,6 +105,19 @@ public class MenuScreen extends AbstractGameScreen
 		stack.add(layerLogos);
 		stack.add(layerControls);
 		stage.addActor(layerOptionsWindow);
+		playIntro();
+	}
+
+	/**
+	 * Moves the coins and the bunny in, every time the menu is shown. The
+	 * actions come from pools, so playing it again allocates nothing.
+	 */
+	private void playIntro()
+	{
+		imgCoins.clearActions();
+		imgCoins.addAction(sequence(moveTo(135, -20), scaleTo(0,0),fadeOut(0),delay(2.5f),parallel(moveBy(0,100,0.5f,Interpolation.swingOut),scaleTo(1.0f,1.0f,0.25f,Interpolation.linear),alpha(1.0f,0.5f))));
+		imgBunny.clearActions();
+		imgBunny.addAction(sequence(moveTo(655,510),delay(4.0f),moveBy(-70,-100,0.5f, Interpolation.fade),moveBy(-100,-50,0.5f,Interpolation.fade),moveBy(-150,-300,1.0f,Interpolation.elasticIn)));
 	}
 
 	/**
@@ -140,11 +147,9 @@ public class MenuScreen extends AbstractGameScreen
 		layer.addActor(imgCoins);
 		//imgCoins.setPosition(135, 80);
 		imgCoins.setOrigin(imgCoins.getWidth()/2,imgCoins.getHeight() /2);
-		imgCoins.addAction(sequence(moveTo(135, -20), scaleTo(0,0),fadeOut(0),delay(2.5f),parallel(moveBy(0,100,0.5f,Interpolation.swingOut),scaleTo(1.0f,1.0f,0.25f,Interpolation.linear),alpha(1.0f,0.5f))));
 		// + Bunny
 		imgBunny = new Image(skinCanyonBunny, "bunny");
 		layer.addActor(imgBunny);
-		imgBunny.addAction(sequence(moveTo(655,510),delay(4.0f),moveBy(-70,-100,0.5f, Interpolation.fade),moveBy(-100,-50,0.5f,Interpolation.fade),moveBy(-150,-300,1.0f,Interpolation.elasticIn)));
 		//imgBunny.setPosition(355, 40);
 		return layer;
 	}
@@ -215,7 +220,12 @@ public class MenuScreen extends AbstractGameScreen
 	 */
 	private void onPlayClicked()
 	{
-		game.setScreen(new GameScreen(game));
+		// a level played before is still loaded and starts right away
+		GameScreen gameScreen = ScreenManager.getGameScreen(game);
+		if (gameScreen.hasLevel())
+			game.setScreen(gameScreen);
+		else
+			game.setScreen(new LoadingScreen(game));
 	}
 
 	/**
@@ -331,6 +341,11 @@ public class MenuScreen extends AbstractGameScreen
 		tbl.add(new Label("Show FPS Counter", skinLibgdx));
 		tbl.add(chkShowFpsCounter);
 		tbl.row();
+		// + Checkbox, "Show Profiler" label
+		chkShowProfiler = new CheckBox("", skinLibgdx);
+		tbl.add(new Label("Show Profiler", skinLibgdx));
+		tbl.add(chkShowProfiler);
+		tbl.row();
 		return tbl;
 	}
 
@@ -398,6 +413,7 @@ public class MenuScreen extends AbstractGameScreen
 		selCharSkin.setSelectedIndex(prefs.charSkin);
 		onCharSkinSelected(prefs.charSkin);
 		chkShowFpsCounter.setChecked(prefs.showFpsCounter);
+		chkShowProfiler.setChecked(prefs.showProfiler);
 	}
 
 	/**
@@ -460,6 +476,7 @@ public class MenuScreen extends AbstractGameScreen
 		prefs.volMusic = sldMusic.getValue();
 		prefs.charSkin = selCharSkin.getSelectedIndex();
 		prefs.showFpsCounter = chkShowFpsCounter.isChecked();
+		prefs.showProfiler = chkShowProfiler.isChecked();
 		prefs.save();
 	}
 
@@ -505,25 +522,43 @@ public class MenuScreen extends AbstractGameScreen
 	}
 
 	/**
-	 * Redraws the stage when it needs to be shown again.
+	 * Builds the stage the first time the screen is shown, later times only
+	 * play the intro again.
 	 */
 	@Override
 	public void show()
 	{
-		stage = new Stage(new StretchViewport(Constants.VIEWPORT_GUI_WIDTH, Constants.VIEWPORT_GUI_HEIGHT));
+		if (stage == null)
+		{
+			stage = new Stage(new StretchViewport(Constants.VIEWPORT_GUI_WIDTH, Constants.VIEWPORT_GUI_HEIGHT));
+			skinCanyonBunny = Assets.instance.skins.canyonBunny;
+			skinLibgdx = Assets.instance.skins.libgdx;
+			rebuildStage();
+		} else
+		{
+			playIntro();
+		}
 		Gdx.input.setInputProcessor(stage);
-		rebuildStage();
 	}
 
 	/**
-	 * Frees allocated resources when screen is hidden.
+	 * Keeps the stage for the next time the menu is shown.
 	 */
 	@Override
 	public void hide()
 	{
+	}
+
+	/**
+	 * Frees the stage, the skins belong to the assets.
+	 */
+	@Override
+	public void dispose()
+	{
+		if (stage == null)
+			return;
 		stage.dispose();
-		skinCanyonBunny.dispose();
-		skinLibgdx.dispose();
+		stage = null;
 	}
 
 	/**
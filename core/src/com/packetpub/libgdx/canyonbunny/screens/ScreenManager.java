@@ -0,0 +1,250 @@
+package com.packetpub.libgdx.canyonbunny.screens;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.packetpub.libgdx.canyonbunny.screens.transitions.ScreenTransition;
+import com.packetpub.libgdx.canyonbunny.screens.transitions.ScreenTransitionFade;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
+
+/**
+ * A game that keeps the menu and game screens once they are made, so going
+ * back and forth between them loads and allocates nothing, and fades from one
+ * screen to the next.
+ *
+ * During a transition both screens are drawn into frame buffers, which the
+ * transition then draws to the screen. The new screen is shown and paused at
+ * the start and resumed at the end, when the old screen is hidden. Input is
+ * ignored in between. Frame buffers do not nest, so a screen must not use one
+ * of its own in render(), only in show() and resume(). A screen switch asked
+ * for while drawing into the frame buffers waits until they are unbound.
+ *
+ * @author Tyler Forrester
+ */
+public abstract class ScreenManager extends Game
+{
+	// longest step a transition takes in one frame, so a slow first frame of
+	// the new screen does not skip the fade
+	private static final float MAX_TRANSITION_STEP = 1.0f / 60.0f;
+
+	private MenuScreen menuScreen;
+	private GameScreen gameScreen;
+
+	private final ScreenTransition defaultTransition = new ScreenTransitionFade(
+			Constants.SCREEN_TRANSITION_DURATION);
+
+	// screen being faded in, null when there is no transition
+	private Screen nextScreen;
+	private ScreenTransition transition;
+	private float time;
+	// input processor set by the new screen, set once it is faded in
+	private InputProcessor nextInputProcessor;
+
+	// a screen switch asked for while drawing into the frame buffers
+	private boolean drawingScreens;
+	private Screen pendingScreen;
+	private ScreenTransition pendingTransition;
+
+	private FrameBuffer currFbo;
+	private FrameBuffer nextFbo;
+	private SpriteBatch batch;
+
+	/**
+	 * Returns the menu screen, made once if the game is a screen manager
+	 *
+	 * @param game
+	 *            game the screen belongs to
+	 */
+	public static MenuScreen getMenuScreen(Game game)
+	{
+		if (!(game instanceof ScreenManager))
+			return new MenuScreen(game);
+		ScreenManager manager = (ScreenManager) game;
+		if (manager.menuScreen == null)
+			manager.menuScreen = new MenuScreen(game);
+		return manager.menuScreen;
+	}
+
+	/**
+	 * Returns the game screen, made once if the game is a screen manager
+	 *
+	 * @param game
+	 *            game the screen belongs to
+	 */
+	public static GameScreen getGameScreen(Game game)
+	{
+		if (!(game instanceof ScreenManager))
+			return new GameScreen(game);
+		ScreenManager manager = (ScreenManager) game;
+		if (manager.gameScreen == null)
+			manager.gameScreen = new GameScreen(game);
+		return manager.gameScreen;
+	}
+
+	/**
+	 * Fades to the given screen
+	 */
+	@Override
+	public void setScreen(Screen screen)
+	{
+		setScreen(screen, defaultTransition);
+	}
+
+	/**
+	 * Switches to the given screen
+	 *
+	 * @param screen
+	 *            screen to show
+	 * @param transition
+	 *            how to get there, null to switch right away
+	 */
+	public void setScreen(Screen screen, ScreenTransition transition)
+	{
+		// screens may ask again every frame until they are left
+		if (screen == nextScreen)
+			return;
+		// the new screen is shown once the frame buffers are unbound
+		if (drawingScreens)
+		{
+			pendingScreen = screen;
+			pendingTransition = transition;
+			return;
+		}
+		if (nextScreen != null)
+			endTransition();
+		if (this.screen == null || screen == null || transition == null)
+		{
+			super.setScreen(screen);
+			return;
+		}
+		if (screen == this.screen)
+			return;
+
+		int width = Gdx.graphics.getWidth();
+		int height = Gdx.graphics.getHeight();
+		createFrameBuffers(width, height);
+		nextScreen = screen;
+		this.transition = transition;
+		time = 0;
+
+		screen.show();
+		screen.resize(width, height);
+		nextInputProcessor = Gdx.input.getInputProcessor();
+		Gdx.input.setInputProcessor(null);
+		this.screen.pause();
+		screen.pause();
+	}
+
+	/**
+	 * Draws the current screen, or both screens blended while switching
+	 */
+	@Override
+	public void render()
+	{
+		if (nextScreen == null)
+		{
+			super.render();
+			return;
+		}
+
+		float deltaTime = Gdx.graphics.getDeltaTime();
+		time = Math.min(time + Math.min(deltaTime, MAX_TRANSITION_STEP), transition.getDuration());
+		if (time >= transition.getDuration())
+		{
+			endTransition();
+			screen.render(deltaTime);
+			return;
+		}
+
+		createFrameBuffers(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		drawingScreens = true;
+		currFbo.begin();
+		screen.render(deltaTime);
+		currFbo.end();
+		nextFbo.begin();
+		nextScreen.render(deltaTime);
+		nextFbo.end();
+		drawingScreens = false;
+		transition.render(batch, currFbo.getColorBufferTexture(), nextFbo.getColorBufferTexture(),
+				time / transition.getDuration());
+
+		if (pendingScreen != null)
+		{
+			Screen screen = pendingScreen;
+			pendingScreen = null;
+			setScreen(screen, pendingTransition);
+			pendingTransition = null;
+		}
+	}
+
+	/**
+	 * Hides the old screen and hands over to the new one
+	 */
+	private void endTransition()
+	{
+		Screen next = nextScreen;
+		nextScreen = null;
+		transition = null;
+		screen.hide();
+		screen = next;
+		screen.resume();
+		Gdx.input.setInputProcessor(nextInputProcessor);
+		nextInputProcessor = null;
+	}
+
+	/**
+	 * Makes the frame buffers and the batch for transitions, again if the
+	 * window changed size
+	 */
+	private void createFrameBuffers(int width, int height)
+	{
+		if (currFbo != null && currFbo.getWidth() == width && currFbo.getHeight() == height)
+			return;
+		disposeFrameBuffers();
+		currFbo = new FrameBuffer(Format.RGB888, width, height, false);
+		nextFbo = new FrameBuffer(Format.RGB888, width, height, false);
+		if (batch == null)
+			batch = new SpriteBatch();
+		batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+	}
+
+	private void disposeFrameBuffers()
+	{
+		if (currFbo != null)
+			currFbo.dispose();
+		if (nextFbo != null)
+			nextFbo.dispose();
+		currFbo = null;
+		nextFbo = null;
+	}
+
+	@Override
+	public void resize(int width, int height)
+	{
+		super.resize(width, height);
+		if (nextScreen != null)
+			nextScreen.resize(width, height);
+	}
+
+	/**
+	 * Hides the screens shown and frees the kept ones
+	 */
+	@Override
+	public void dispose()
+	{
+		super.dispose();
+		if (nextScreen != null)
+			nextScreen.hide();
+		if (menuScreen != null)
+			menuScreen.dispose();
+		if (gameScreen != null)
+			gameScreen.dispose();
+		disposeFrameBuffers();
+		if (batch != null)
+			batch.dispose();
+	}
+}
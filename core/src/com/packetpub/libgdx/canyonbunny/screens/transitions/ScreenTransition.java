@@ -0,0 +1,33 @@
+package com.packetpub.libgdx.canyonbunny.screens.transitions;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Blends the last frames of one screen into the first frames of the next.
+ * Both screens are drawn into textures every frame of the transition.
+ *
+ * @author Tyler Forrester
+ */
+public interface ScreenTransition
+{
+	/**
+	 * Returns how long the transition takes in seconds
+	 */
+	public float getDuration();
+
+	/**
+	 * Draws one frame of the transition to the screen
+	 *
+	 * @param batch
+	 *            batch to draw with, not between begin() and end()
+	 * @param currScreen
+	 *            frame of the screen that is left, upside down as drawn into a
+	 *            frame buffer
+	 * @param nextScreen
+	 *            frame of the screen that is shown next, upside down as well
+	 * @param alpha
+	 *            how far the transition has come, from 0 to 1
+	 */
+	public void render(SpriteBatch batch, Texture currScreen, Texture nextScreen, float alpha);
+}
@@ -0,0 +1,55 @@
+package com.packetpub.libgdx.canyonbunny.screens.transitions;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Interpolation;
+
+/**
+ * Cross-fades from one screen to the next
+ *
+ * @author Tyler Forrester
+ */
+public class ScreenTransitionFade implements ScreenTransition
+{
+	private final float duration;
+
+	/**
+	 * Creates a cross-fade
+	 *
+	 * @param duration
+	 *            seconds the fade takes
+	 */
+	public ScreenTransitionFade(float duration)
+	{
+		this.duration = duration;
+	}
+
+	@Override
+	public float getDuration()
+	{
+		return duration;
+	}
+
+	/**
+	 * Draws the old screen and the new one on top of it, fading in
+	 */
+	@Override
+	public void render(SpriteBatch batch, Texture currScreen, Texture nextScreen, float alpha)
+	{
+		int width = currScreen.getWidth();
+		int height = currScreen.getHeight();
+		alpha = Interpolation.fade.apply(alpha);
+
+		Gdx.gl.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		batch.begin();
+		batch.setColor(1, 1, 1, 1);
+		batch.draw(currScreen, 0, 0, width, height, 0, 0, width, height, false, true);
+		batch.setColor(1, 1, 1, alpha);
+		batch.draw(nextScreen, 0, 0, width, height, 0, 0, width, height, false, true);
+		batch.end();
+		batch.setColor(1, 1, 1, 1);
+	}
+}
@@ -18,6 +18,8 @@ public class CameraHelper
 	private final float FOLLOW_SPEED = 4.0f;
 
 	private Vector2 position;
+	private Vector2 previousPosition;
+	private Vector2 interpolatedPosition;
 	private float zoom;
 	private AbstractGameObject target;
 
@@ -27,6 +29,8 @@ public class CameraHelper
 	public CameraHelper()
 	{
 		position = new Vector2();
+		previousPosition = new Vector2();
+		interpolatedPosition = new Vector2();
 		zoom = 1.0f;
 	}
 
@@ -147,6 +151,28 @@ public class CameraHelper
 		return hasTarget() && this.target.equals(target);
 	}
 
+	/**
+	 * Moves straight to the target, without following it there over the next
+	 * steps or interpolating from where the camera was
+	 */
+	public void snapToTarget()
+	{
+		if (!hasTarget())
+			return;
+		position.set(target.position.x + target.origin.x, target.position.y + target.origin.y);
+		position.y = Math.max(-1f, position.y);
+		storePreviousPosition();
+	}
+
+	/**
+	 * Remembers the current position as the position at the start of a
+	 * simulation step
+	 */
+	public void storePreviousPosition()
+	{
+		previousPosition.set(position);
+	}
+
 	/**
 	 * Updates camera position to desired position
 	 * 
@@ -159,4 +185,21 @@ public class CameraHelper
 		camera.zoom = zoom;
 		camera.update();
 	}
+
+	/**
+	 * Updates camera position to a position in between the previous and the
+	 * current simulation step
+	 * 
+	 * @param camera
+	 * @param alpha
+	 *            how far to go from the previous to the current position, 0 to 1
+	 */
+	public void applyTo(OrthographicCamera camera, float alpha)
+	{
+		interpolatedPosition.set(previousPosition).lerp(position, alpha);
+		camera.position.x = interpolatedPosition.x;
+		camera.position.y = interpolatedPosition.y;
+		camera.zoom = zoom;
+		camera.update();
+	}
 }
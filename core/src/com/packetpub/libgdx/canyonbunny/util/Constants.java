@@ -17,6 +17,13 @@ public class Constants
 	// Location of Description file for texture atlas
 	public static final String TEXTURE_ATLAS_OBJECTS = "images/canyonbunny.pack.atlas";
 
+	// Font used for all game text, its glyphs are packed into the object atlas
+	public static final String FONT_DEFAULT = "images/arial-15.fnt";
+	public static final String FONT_GLYPHS = "arial-15";
+
+	// Dust particle effect, its images are in the same directory
+	public static final String PARTICLES_DUST = "particles/dust.pfx";
+
 	// Location of image file for level 01
 	public static final String LEVEL_01 = "levels/level-01.png";
 	// Amount of extra lives at level start
@@ -44,4 +51,48 @@ public class Constants
 	
 	//Delay after game finished
 	public static final float TIME_DELAY_GAME_FINISHED = 6;
+
+	// Rocks within this distance (in meters) of the camera float, the ones
+	// further away are frozen. Grows with the camera zoom.
+	public static final float ROCK_ACTIVE_DISTANCE = 10.0f;
+
+	// Levels at least this many columns wide are streamed in chunks
+	public static final int LEVEL_STREAMING_MIN_WIDTH = 256;
+
+	// Width of a streamed level chunk in columns
+	public static final int LEVEL_CHUNK_WIDTH = 16;
+
+	// Chunks within this distance (in meters) of the camera are kept live
+	public static final float LEVEL_STREAMING_DISTANCE = 20.0f;
+
+	// Number of level objects created per frame while loading a level
+	public static final int LEVEL_BUILD_OBJECTS_PER_FRAME = 200;
+
+	// Time spent loading assets per frame while the loading screen is shown
+	public static final int ASSET_LOAD_MILLIS_PER_FRAME = 10;
+
+	// Seconds the old screen takes to fade into the new one
+	public static final float SCREEN_TRANSITION_DURATION = 0.75f;
+
+	// Number of fixed simulation steps per second
+	public static final int SIMULATION_TICK_RATE = 60;
+
+	// Most simulation steps run in one frame, the rest of the time is dropped
+	public static final int SIMULATION_MAX_STEPS_PER_FRAME = 5;
+
+	// Find items and the goal with Box2D sensors instead of rectangle tests
+	public static final boolean PICKUP_SENSORS = false;
+
+	// Log draw calls and texture switches of the game screen once a second
+	public static final boolean LOG_RENDER_STATS = false;
+
+	// Write per-frame numbers of the game screen to a file for soak tests
+	public static final boolean TELEMETRY = false;
+	// Local file written, older files get .1, .2 and so on appended
+	public static final String TELEMETRY_FILE = "telemetry/frames.csv";
+	// Frames buffered in memory until the writer thread catches up
+	public static final int TELEMETRY_BUFFERED_FRAMES = 1024;
+	// A new file is started at this size
+	public static final long TELEMETRY_MAX_FILE_BYTES = 8 * 1024 * 1024;
+	public static final int TELEMETRY_KEPT_FILES = 3;
 }
@@ -0,0 +1,142 @@
+package com.packetpub.libgdx.canyonbunny.util;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Tells whether the OpenGL context was lost, as happens on Android when the
+ * app goes to the background. The backend then re-uploads every managed
+ * texture by itself. The watcher owns a 1x1 managed texture that counts its
+ * uploads: one upload is its creation, every further one is a lost context.
+ *
+ * Nothing else has to be reloaded after a lost context, but things drawn into
+ * frame buffers are gone and have to be drawn again.
+ *
+ * @author Kevin Rutter
+ */
+public class GLContextWatcher implements Disposable
+{
+	private final Texture sentinel;
+	private int uploads;
+	// losses already reported by wasLost()
+	private int reportedLosses;
+
+	/**
+	 * Creates the watcher, must be called on the render thread
+	 */
+	public GLContextWatcher()
+	{
+		sentinel = new Texture(new SentinelData());
+	}
+
+	/**
+	 * Returns how often the context was lost since the watcher was made
+	 */
+	public int getLosses()
+	{
+		return Math.max(0, uploads - 1);
+	}
+
+	/**
+	 * Tells whether the context was lost since the last call
+	 */
+	public boolean wasLost()
+	{
+		int losses = getLosses();
+		boolean lost = losses != reportedLosses;
+		reportedLosses = losses;
+		return lost;
+	}
+
+	@Override
+	public void dispose()
+	{
+		sentinel.dispose();
+	}
+
+	/**
+	 * One opaque white texel, counting how often it is uploaded
+	 */
+	private class SentinelData implements TextureData
+	{
+		@Override
+		public TextureDataType getType()
+		{
+			return TextureDataType.Custom;
+		}
+
+		@Override
+		public boolean isPrepared()
+		{
+			return true;
+		}
+
+		@Override
+		public void prepare()
+		{
+		}
+
+		@Override
+		public Pixmap consumePixmap()
+		{
+			throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+		}
+
+		@Override
+		public boolean disposePixmap()
+		{
+			return false;
+		}
+
+		@Override
+		public void consumeCustomData(int target)
+		{
+			ByteBuffer texel = BufferUtils.newByteBuffer(4);
+			texel.put((byte) 0xff).put((byte) 0xff).put((byte) 0xff).put((byte) 0xff).flip();
+			Gdx.gl.glTexImage2D(target, 0, GL20.GL_RGBA, 1, 1, 0, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, texel);
+			uploads++;
+		}
+
+		@Override
+		public int getWidth()
+		{
+			return 1;
+		}
+
+		@Override
+		public int getHeight()
+		{
+			return 1;
+		}
+
+		@Override
+		public Format getFormat()
+		{
+			return Format.RGBA8888;
+		}
+
+		@Override
+		public boolean useMipMaps()
+		{
+			return false;
+		}
+
+		/**
+		 * Managed, so the backend uploads it again after a lost context
+		 */
+		@Override
+		public boolean isManaged()
+		{
+			return true;
+		}
+	}
+}
@@ -19,6 +19,7 @@ public class GamePreferences
 	public float volSound, volMusic;
 	public int charSkin;
 	public boolean showFpsCounter;
+	public boolean showProfiler;
 
 	private Preferences prefs;
 
@@ -42,6 +43,7 @@ public class GamePreferences
 		charSkin = com.badlogic.gdx.math.MathUtils.clamp(prefs.getInteger("charSkin", 0), 0, 2);
 
 		showFpsCounter = prefs.getBoolean("showFpsCounter", false);
+		showProfiler = prefs.getBoolean("showProfiler", false);
 	}
 
 	/**
@@ -55,6 +57,7 @@ public class GamePreferences
 		prefs.putFloat("volMusic", volMusic);
 		prefs.putInteger("charSkin", charSkin);
 		prefs.putBoolean("showFpsCounter", showFpsCounter);
+		prefs.putBoolean("showProfiler", showProfiler);
 		prefs.flush();
 	}
 }
@@ -0,0 +1,95 @@
+package com.packetpub.libgdx.canyonbunny.util;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+
+/**
+ * One line of GUI text made of a fixed label and a number, such as the score
+ * or the FPS counter. The glyphs are laid out once and kept in a cache, they
+ * are only laid out again when the number changes. Drawing the text every
+ * frame allocates nothing.
+ *
+ * @author Gabe Werick
+ */
+public class HudText
+{
+	private final String label;
+	private final StringBuilder text;
+	private BitmapFontCache cache;
+	private int value;
+	private boolean valid;
+	private float color;
+
+	/**
+	 * Creates an empty line of text
+	 *
+	 * @param label
+	 *            text shown in front of the number, may be empty
+	 */
+	public HudText(String label)
+	{
+		this.label = label;
+		// room for the label and any int
+		text = new StringBuilder(label.length() + 11);
+		color = Color.WHITE.toFloatBits();
+	}
+
+	/**
+	 * Sets the number shown. The text is only laid out again if the number or
+	 * the font changed.
+	 *
+	 * @param font
+	 *            font to draw with
+	 * @param value
+	 *            number to show after the label
+	 */
+	public void setValue(BitmapFont font, int value)
+	{
+		if (cache == null || cache.getFont() != font)
+		{
+			// first use, or the fonts were loaded again
+			cache = new BitmapFontCache(font, font.usesIntegerPositions());
+			valid = false;
+		}
+		if (valid && value == this.value)
+			return;
+		this.value = value;
+		valid = true;
+		text.setLength(0);
+		text.append(label).append(value);
+		cache.setText(text, 0, 0);
+		cache.setColors(color);
+	}
+
+	/**
+	 * Tells whether a number has been set, there is nothing to draw before
+	 */
+	public boolean hasValue()
+	{
+		return cache != null;
+	}
+
+	/**
+	 * Sets the color of the text
+	 */
+	public void setColor(float r, float g, float b, float a)
+	{
+		float newColor = Color.toFloatBits(r, g, b, a);
+		if (newColor == color)
+			return;
+		color = newColor;
+		if (cache != null)
+			cache.setColors(color);
+	}
+
+	/**
+	 * Draws the text at a position, the same way BitmapFont.draw() would
+	 */
+	public void draw(Batch batch, float x, float y)
+	{
+		cache.setPosition(x, y);
+		cache.draw(batch);
+	}
+}
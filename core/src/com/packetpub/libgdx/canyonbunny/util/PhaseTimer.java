@@ -0,0 +1,65 @@
+package com.packetpub.libgdx.canyonbunny.util;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Adds up the time spent in one phase of the game loop. Cheap enough to stay
+ * on in normal play, it only reads the clock twice per call.
+ *
+ * @author Gabe Werick
+ */
+public class PhaseTimer
+{
+	public final String name;
+
+	// time spent and number of calls since the last reset
+	public long totalNanos;
+	public int calls;
+
+	private long startTime;
+
+	/**
+	 * Creates a timer
+	 *
+	 * @param name
+	 *            name of the phase, used in reports
+	 */
+	public PhaseTimer(String name)
+	{
+		this.name = name;
+	}
+
+	/**
+	 * Marks the start of the phase
+	 */
+	public void start()
+	{
+		startTime = TimeUtils.nanoTime();
+	}
+
+	/**
+	 * Marks the end of the phase and adds its time to the total
+	 */
+	public void stop()
+	{
+		totalNanos += TimeUtils.nanoTime() - startTime;
+		calls++;
+	}
+
+	/**
+	 * Returns the mean time per call in milliseconds
+	 */
+	public float getMeanMillis()
+	{
+		return calls == 0 ? 0 : totalNanos / (calls * 1000000f);
+	}
+
+	/**
+	 * Forgets all measured time
+	 */
+	public void reset()
+	{
+		totalNanos = 0;
+		calls = 0;
+	}
+}
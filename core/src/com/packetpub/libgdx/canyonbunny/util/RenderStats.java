@@ -0,0 +1,58 @@
+package com.packetpub.libgdx.canyonbunny.util;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Counts what the sprite batch sent to the GPU during one frame, to see how
+ * well draws are batched. Draw calls made around the batch, such as cached
+ * geometry, are not counted.
+ *
+ * @author Gabe Werick
+ */
+public class RenderStats
+{
+	// draw calls the batch made during the last frame
+	public int renderCalls;
+	// draw calls the batch made since it was created
+	public int totalRenderCalls;
+	// most sprites the batch drew with one draw call during the last frame
+	public int maxSpritesInBatch;
+	// texture or blend changes between queued draws during the last frame
+	public int textureSwitches;
+
+	private int frameStartCalls;
+
+	/**
+	 * Starts counting a frame
+	 *
+	 * @param batch
+	 *            batch the frame is drawn with
+	 */
+	public void beginFrame(SpriteBatch batch)
+	{
+		frameStartCalls = batch.totalRenderCalls;
+		// the batch keeps its largest batch ever, count this frame only
+		batch.maxSpritesInBatch = 0;
+		textureSwitches = 0;
+	}
+
+	/**
+	 * Stops counting a frame
+	 *
+	 * @param batch
+	 *            batch the frame is drawn with
+	 */
+	public void endFrame(SpriteBatch batch)
+	{
+		totalRenderCalls = batch.totalRenderCalls;
+		renderCalls = totalRenderCalls - frameStartCalls;
+		maxSpritesInBatch = batch.maxSpritesInBatch;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "render calls: " + renderCalls + " (total " + totalRenderCalls + "), max sprites in batch: "
+				+ maxSpritesInBatch + ", texture switches: " + textureSwitches;
+	}
+}
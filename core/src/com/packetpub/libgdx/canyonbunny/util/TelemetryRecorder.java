@@ -0,0 +1,315 @@
+package com.packetpub.libgdx.canyonbunny.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Records a line of numbers for every frame and writes them to a CSV file, for
+ * looking at long test runs afterwards. The game thread only copies the
+ * numbers into a ring buffer, a background thread turns them into text and
+ * writes them. Neither side waits for the other: if the writer falls behind
+ * and the ring is full, frames are dropped and counted instead.
+ *
+ * A recorder adds to the file another one left behind, so a run that starts
+ * the game several times keeps every session. Each session starts again at
+ * frame 0. Once the file is bigger than the size limit it is renamed to
+ * file.1, file.1 to file.2 and so on, and a new file is started. Only a few
+ * old files are kept.
+ *
+ * @author Kevin Rutter
+ */
+public class TelemetryRecorder
+{
+	private static final String TAG = TelemetryRecorder.class.getName();
+
+	private static final String HEADER = "frame,time_ms,frame_us,update_us,render_us,steps,rocks,carrots,bodies,"
+			+ "heap_kb,gc_count,gc_ms\n";
+	// numbers per frame, in the order of the header
+	private static final int FIELDS = 12;
+
+	// how often the writer looks for new frames
+	private static final long FLUSH_INTERVAL_NANOS = 250000000L;
+
+	private final File file;
+	private final long maxFileBytes;
+	private final int keptFiles;
+
+	// frames not written yet, FIELDS numbers each. Only the game thread moves
+	// writeCount and only the writer moves readCount.
+	private final long[] ring;
+	private final int capacity;
+	private final AtomicLong writeCount = new AtomicLong();
+	private final AtomicLong readCount = new AtomicLong();
+
+	// frames lost because the ring was full
+	public volatile int droppedFrames;
+
+	private final long startTime;
+	private long frame;
+	private final Runtime runtime = Runtime.getRuntime();
+	private final List<GarbageCollectorMXBean> collectors;
+
+	private final Thread writer;
+	private volatile boolean running;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+	private FileChannel channel;
+	private long fileBytes;
+
+	/**
+	 * Creates a recorder and starts its writer thread
+	 *
+	 * @param file
+	 *            file to write, added to if it exists
+	 * @param capacity
+	 *            number of frames the ring holds
+	 * @param maxFileBytes
+	 *            size at which a new file is started
+	 * @param keptFiles
+	 *            number of old files kept next to the current one
+	 */
+	public TelemetryRecorder(File file, int capacity, long maxFileBytes, int keptFiles)
+	{
+		this.file = file;
+		this.capacity = capacity;
+		this.maxFileBytes = maxFileBytes;
+		this.keptFiles = keptFiles;
+		ring = new long[capacity * FIELDS];
+		// the list is made once, reading a count from it allocates nothing
+		collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		startTime = TimeUtils.nanoTime();
+
+		running = true;
+		writer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				writeLoop();
+			}
+		}, "telemetry");
+		writer.setDaemon(true);
+		writer.setPriority(Thread.MIN_PRIORITY);
+		writer.start();
+	}
+
+	/**
+	 * Records one frame. Called by the game thread only, it allocates nothing
+	 * and never waits.
+	 *
+	 * @param frameNanos
+	 *            length of the frame
+	 * @param updateNanos
+	 *            time spent updating the game world
+	 * @param renderNanos
+	 *            time spent drawing
+	 * @param steps
+	 *            simulation steps taken
+	 * @param rocks
+	 *            number of rocks in the level
+	 * @param carrots
+	 *            number of live carrots
+	 * @param bodies
+	 *            number of bodies in the physics world
+	 */
+	public void record(long frameNanos, long updateNanos, long renderNanos, int steps, int rocks, int carrots,
+			int bodies)
+	{
+		// dropped frames still use up a number, so they show as gaps
+		long frameNumber = frame++;
+		long count = writeCount.get();
+		long pending = count - readCount.get();
+		if (pending >= capacity)
+		{
+			droppedFrames++;
+			return;
+		}
+		long gcCount = 0;
+		long gcMillis = 0;
+		for (int i = 0; i < collectors.size(); i++)
+		{
+			GarbageCollectorMXBean collector = collectors.get(i);
+			gcCount += Math.max(0, collector.getCollectionCount());
+			gcMillis += Math.max(0, collector.getCollectionTime());
+		}
+
+		int i = (int) (count % capacity) * FIELDS;
+		ring[i] = frameNumber;
+		ring[i + 1] = (TimeUtils.nanoTime() - startTime) / 1000000;
+		ring[i + 2] = frameNanos / 1000;
+		ring[i + 3] = updateNanos / 1000;
+		ring[i + 4] = renderNanos / 1000;
+		ring[i + 5] = steps;
+		ring[i + 6] = rocks;
+		ring[i + 7] = carrots;
+		ring[i + 8] = bodies;
+		ring[i + 9] = (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+		ring[i + 10] = gcCount;
+		ring[i + 11] = gcMillis;
+		// publishes the numbers above to the writer
+		writeCount.lazySet(count + 1);
+		// wake the writer early rather than drop frames
+		if (pending == capacity / 2)
+			LockSupport.unpark(writer);
+	}
+
+	/**
+	 * Stops the writer thread once it has written every recorded frame and
+	 * closes the file
+	 */
+	public void close()
+	{
+		running = false;
+		LockSupport.unpark(writer);
+		try
+		{
+			writer.join();
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Body of the writer thread
+	 */
+	private void writeLoop()
+	{
+		try
+		{
+			openFile();
+			while (running)
+			{
+				writeRecorded();
+				LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+			}
+			writeRecorded();
+		} catch (IOException e)
+		{
+			Gdx.app.error(TAG, "Could not write " + file, e);
+		} finally
+		{
+			closeFile();
+		}
+	}
+
+	/**
+	 * Writes every frame recorded since the last call
+	 */
+	private void writeRecorded() throws IOException
+	{
+		long read = readCount.get();
+		long count = writeCount.get();
+		while (read < count)
+		{
+			int start = (int) (read % capacity) * FIELDS;
+			// longest line: FIELDS numbers of up to 20 characters and commas
+			if (buffer.remaining() < FIELDS * 21)
+				flushBuffer();
+			for (int field = 0; field < FIELDS; field++)
+			{
+				if (field > 0)
+					buffer.put((byte) ',');
+				putNumber(ring[start + field]);
+			}
+			buffer.put((byte) '\n');
+			read++;
+			// hands the slot back to the game thread
+			readCount.lazySet(read);
+		}
+		flushBuffer();
+	}
+
+	/**
+	 * Writes a number as text into the buffer without making a string
+	 */
+	private void putNumber(long value)
+	{
+		if (value < 0)
+		{
+			buffer.put((byte) '-');
+			value = -value;
+		}
+		int start = buffer.position();
+		do
+		{
+			buffer.put((byte) ('0' + value % 10));
+			value /= 10;
+		} while (value > 0);
+		// the digits went in backwards
+		for (int i = start, j = buffer.position() - 1; i < j; i++, j--)
+		{
+			byte digit = buffer.get(i);
+			buffer.put(i, buffer.get(j));
+			buffer.put(j, digit);
+		}
+	}
+
+	/**
+	 * Writes the buffer to the file, starting a new file first if this one
+	 * is full
+	 */
+	private void flushBuffer() throws IOException
+	{
+		buffer.flip();
+		if (fileBytes + buffer.remaining() > maxFileBytes && fileBytes > HEADER.length())
+		{
+			closeFile();
+			rotateFiles();
+			openFile();
+		}
+		while (buffer.hasRemaining())
+			fileBytes += channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Opens the file for adding to it, and writes the header if it is new
+	 */
+	private void openFile() throws IOException
+	{
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		channel = new FileOutputStream(file, true).getChannel();
+		fileBytes = channel.size();
+		if (fileBytes == 0)
+			fileBytes = channel.write(ByteBuffer.wrap(HEADER.getBytes("US-ASCII")));
+	}
+
+	private void closeFile()
+	{
+		if (channel == null)
+			return;
+		try
+		{
+			channel.close();
+		} catch (IOException e)
+		{
+			Gdx.app.error(TAG, "Could not close " + file, e);
+		}
+		channel = null;
+	}
+
+	/**
+	 * Moves each old file one number up, dropping the oldest
+	 */
+	private void rotateFiles()
+	{
+		new File(file.getPath() + "." + keptFiles).delete();
+		for (int i = keptFiles - 1; i >= 1; i--)
+			new File(file.getPath() + "." + i).renameTo(new File(file.getPath() + "." + (i + 1)));
+		if (keptFiles > 0)
+			file.renameTo(new File(file.getPath() + ".1"));
+	}
+}
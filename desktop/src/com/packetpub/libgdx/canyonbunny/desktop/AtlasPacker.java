@@ -0,0 +1,236 @@
+package com.packetpub.libgdx.canyonbunny.desktop;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker.Settings;
+
+/**
+ * Packs the raw images into the texture atlases the game loads. Runs as part
+ * of the build through the packAtlases task, never when the game starts.
+ *
+ * An atlas is only packed again when the content of its images or the packer
+ * settings changed. A hash of both is kept for every atlas next to the raw
+ * image directories and committed with the atlases, so touching a file,
+ * cleaning the build or checking out the tree again packs nothing.
+ *
+ * @author Tyler Forrester
+ */
+public class AtlasPacker
+{
+	// raw image directories and the atlases packed from them
+	private static final String[][] ATLASES = { { "images", "canyonbunny.pack" },
+			{ "images-ui/images-ui", "canyonbunny-ui.pack" } };
+
+	// draws an outline around every image, for checking the packing
+	private static final boolean DRAW_DEBUG_OUTLINE = false;
+
+	/**
+	 * Packs every atlas whose images changed
+	 *
+	 * @param args
+	 *            directory of the raw image directories, directory to write
+	 *            the atlases to and directory to keep the hashes in, the raw
+	 *            directory when run by the build
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length != 3)
+			throw new IllegalArgumentException("Usage: AtlasPacker <raw dir> <output dir> <cache dir>");
+		File rawDir = new File(args[0]);
+		File outputDir = new File(args[1]);
+		File cacheDir = new File(args[2]);
+		Settings settings = createSettings();
+		for (String[] atlas : ATLASES)
+			pack(settings, new File(rawDir, atlas[0]), outputDir, cacheDir, atlas[1]);
+	}
+
+	/**
+	 * Returns the settings every atlas is packed with
+	 */
+	public static Settings createSettings()
+	{
+		Settings settings = new Settings();
+		settings.maxWidth = 1024;
+		settings.maxHeight = 1024;
+		settings.duplicatePadding = false;
+		settings.debug = DRAW_DEBUG_OUTLINE;
+		return settings;
+	}
+
+	/**
+	 * Packs one atlas unless its hash is the one of the last packing
+	 *
+	 * @param settings
+	 *            packer settings
+	 * @param inputDir
+	 *            directory holding the images, searched recursively
+	 * @param outputDir
+	 *            directory to write the atlas to
+	 * @param cacheDir
+	 *            directory to keep the hash in
+	 * @param packFileName
+	 *            name of the atlas file
+	 */
+	public static void pack(Settings settings, File inputDir, File outputDir, File cacheDir, String packFileName)
+			throws IOException
+	{
+		if (!inputDir.isDirectory())
+			throw new IOException("Not a directory: " + inputDir);
+		String hash = hash(settings, inputDir);
+		File hashFile = new File(cacheDir, packFileName + ".sha1");
+		File atlasFile = new File(outputDir, packFileName + settings.atlasExtension);
+		if (atlasFile.exists() && hash.equals(readHash(hashFile)))
+		{
+			System.out.println("Up to date: " + atlasFile.getName());
+			return;
+		}
+		deleteAtlas(settings, outputDir, packFileName);
+		TexturePacker.process(settings, inputDir.getPath(), outputDir.getPath(), packFileName);
+		writeHash(hashFile, hash);
+		System.out.println("Packed " + inputDir.getName() + " -> " + atlasFile.getName());
+	}
+
+	/**
+	 * Deletes the atlas file and its pages. The packer adds to an atlas file
+	 * that is already there instead of replacing it.
+	 */
+	private static void deleteAtlas(Settings settings, File outputDir, String packFileName) throws IOException
+	{
+		File[] files = outputDir.listFiles();
+		if (files == null)
+			return;
+		String pageExtension = "." + settings.outputFormat;
+		for (File file : files)
+		{
+			String name = file.getName();
+			if (!name.startsWith(packFileName))
+				continue;
+			if (!name.endsWith(settings.atlasExtension) && !name.endsWith(pageExtension))
+				continue;
+			if (!file.delete())
+				throw new IOException("Could not delete " + file);
+		}
+	}
+
+	/**
+	 * Hashes the settings and the names and content of every file below the
+	 * directory
+	 */
+	private static String hash(Settings settings, File inputDir) throws IOException
+	{
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e)
+		{
+			throw new IOException(e);
+		}
+		update(digest, describe(settings));
+		hashFiles(digest, inputDir, "");
+
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest())
+			hex.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+		return hex.toString();
+	}
+
+	/**
+	 * Adds the files below a directory in name order, so the hash does not
+	 * depend on the order the file system lists them in
+	 */
+	private static void hashFiles(MessageDigest digest, File dir, String path) throws IOException
+	{
+		File[] files = dir.listFiles();
+		if (files == null)
+			throw new IOException("Could not list " + dir);
+		Arrays.sort(files);
+		byte[] buffer = new byte[8192];
+		for (File file : files)
+		{
+			String name = path + file.getName();
+			if (file.isDirectory())
+			{
+				hashFiles(digest, file, name + "/");
+				continue;
+			}
+			update(digest, name);
+			InputStream in = new FileInputStream(file);
+			try
+			{
+				int read;
+				while ((read = in.read(buffer)) != -1)
+					digest.update(buffer, 0, read);
+			} finally
+			{
+				in.close();
+			}
+		}
+	}
+
+	/**
+	 * Returns the settings that change the packed atlas as text
+	 */
+	private static String describe(Settings settings)
+	{
+		return "maxWidth=" + settings.maxWidth + ",maxHeight=" + settings.maxHeight + ",paddingX="
+				+ settings.paddingX + ",paddingY=" + settings.paddingY + ",duplicatePadding="
+				+ settings.duplicatePadding + ",edgePadding=" + settings.edgePadding + ",rotation="
+				+ settings.rotation + ",pot=" + settings.pot + ",stripWhitespace=" + settings.stripWhitespaceX + "/"
+				+ settings.stripWhitespaceY + ",format=" + settings.format + ",filter=" + settings.filterMin + "/"
+				+ settings.filterMag + ",outputFormat=" + settings.outputFormat + ",jpegQuality="
+				+ settings.jpegQuality + ",debug=" + settings.debug;
+	}
+
+	private static void update(MessageDigest digest, String text) throws IOException
+	{
+		digest.update(text.getBytes("UTF-8"));
+		// keeps "ab" + "c" apart from "a" + "bc"
+		digest.update((byte) 0);
+	}
+
+	private static String readHash(File hashFile) throws IOException
+	{
+		if (!hashFile.exists())
+			return null;
+		byte[] bytes = new byte[(int) hashFile.length()];
+		InputStream in = new FileInputStream(hashFile);
+		try
+		{
+			int read = 0;
+			while (read < bytes.length)
+			{
+				int n = in.read(bytes, read, bytes.length - read);
+				if (n == -1)
+					break;
+				read += n;
+			}
+		} finally
+		{
+			in.close();
+		}
+		return new String(bytes, "US-ASCII").trim();
+	}
+
+	private static void writeHash(File hashFile, String hash) throws IOException
+	{
+		hashFile.getParentFile().mkdirs();
+		OutputStream out = new FileOutputStream(hashFile);
+		try
+		{
+			out.write(hash.getBytes("US-ASCII"));
+		} finally
+		{
+			out.close();
+		}
+	}
+}
@@ -3,34 +3,20 @@ package com.packetpub.libgdx.canyonbunny.desktop;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.packetpub.libgdx.canyonbunny.CanyonBunnyMain;
-import com.badlogic.gdx.tools.texturepacker.TexturePacker;
-import com.badlogic.gdx.tools.texturepacker.TexturePacker.Settings;
 
 /**
- * This code will run the game and build a texture atlas if one is not built
+ * This code will run the game. The texture atlases are packed by the build,
+ * see AtlasPacker.
  * 
  * @Author Tyler Forrester
  */
 public class DesktopLauncher
 {
-	private static boolean rebuildAtlas = false;
-	private static boolean drawDebugOutline = false;
-
 	/**
 	 * Main class to run the game
 	 */
 	public static void main(String[] arg)
 	{
-		if (rebuildAtlas)
-		{
-			Settings settings = new Settings();
-			settings.maxWidth = 1024;
-			settings.maxHeight = 1024;
-			settings.duplicatePadding = false;
-			settings.debug = drawDebugOutline;
-			TexturePacker.process(settings, "assets-raw/images", "../core/assets/images", "canyonbunny.pack");
-			TexturePacker.process(settings, "assets-raw/images-ui", "../core/assets/images", "canyonbunny-ui.pack");
-		}
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		new LwjglApplication(new CanyonBunnyMain(), config);
 	}
@@ -0,0 +1,115 @@
+package com.packetpub.libgdx.canyonbunny.desktop;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import javax.imageio.ImageIO;
+
+import com.packetpub.libgdx.canyonbunny.game.LevelData;
+
+/**
+ * Compiles the level images into the binary level format read by Level, so
+ * the game does not have to decode the images pixel by pixel at runtime.
+ * Runs as part of the build through the compileLevels task.
+ *
+ * @author Gabe Werick
+ */
+public class LevelCompiler
+{
+	/**
+	 * Compiles every level image in the given directories
+	 *
+	 * @param args
+	 *            directories holding the level images
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		for (String dir : args)
+		{
+			File[] files = new File(dir).listFiles();
+			if (files == null)
+				throw new IOException("Not a directory: " + dir);
+			for (File file : files)
+			{
+				if (file.getName().endsWith(".png"))
+					compile(file);
+			}
+		}
+	}
+
+	/**
+	 * Compiles a single level image into a file next to it
+	 *
+	 * @param imageFile
+	 *            level image to compile
+	 */
+	public static void compile(File imageFile) throws IOException
+	{
+		byte[] imageBytes = readBytes(imageFile);
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+		if (image == null)
+			throw new IOException("Could not read level image: " + imageFile);
+
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+		// ARGB to RGBA, the layout used by Pixmap
+		for (int i = 0; i < pixels.length; i++)
+			pixels[i] = (pixels[i] << 8) | (pixels[i] >>> 24);
+
+		LevelData data = LevelData.decode(width, height, pixels);
+		// lets the game tell when the image was changed without compiling
+		data.sourceChecksum = LevelData.checksum(imageBytes);
+		for (int i = 0; i < data.unknownPixels.size; i += 3)
+		{
+			System.err.println(imageFile.getName() + ": unknown object at x<" + data.unknownPixels.get(i) + "> y<"
+					+ data.unknownPixels.get(i + 1) + ">: rgba<" + Integer.toHexString(data.unknownPixels.get(i + 2))
+					+ ">");
+		}
+
+		File outFile = new File(imageFile.getParentFile(), LevelData.compiledFileName(imageFile.getName()));
+		ByteBuffer buffer = data.write();
+		FileOutputStream out = new FileOutputStream(outFile);
+		try
+		{
+			FileChannel channel = out.getChannel();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		} finally
+		{
+			out.close();
+		}
+		System.out.println("Compiled " + imageFile.getName() + " -> " + outFile.getName() + " (" + outFile.length()
+				+ " bytes)");
+	}
+
+	/**
+	 * Reads a whole file
+	 */
+	private static byte[] readBytes(File file) throws IOException
+	{
+		byte[] bytes = new byte[(int) file.length()];
+		FileInputStream in = new FileInputStream(file);
+		try
+		{
+			int read = 0;
+			while (read < bytes.length)
+			{
+				int n = in.read(bytes, read, bytes.length - read);
+				if (n == -1)
+					throw new IOException("Unexpected end of " + file);
+				read += n;
+			}
+		} finally
+		{
+			in.close();
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,276 @@
+package com.packetpub.libgdx.canyonbunny.headless;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.packetpub.libgdx.canyonbunny.game.Assets;
+import com.packetpub.libgdx.canyonbunny.game.Level;
+import com.packetpub.libgdx.canyonbunny.game.WorldController;
+import com.packetpub.libgdx.canyonbunny.util.Constants;
+import com.packetpub.libgdx.canyonbunny.util.GamePreferences;
+import com.packetpub.libgdx.canyonbunny.util.PhaseTimer;
+
+/**
+ * Runs the game loop without a window or GPU and reports how fast it is.
+ * Loads a level, plays it with scripted input for a number of simulated
+ * seconds and prints ticks per second, the time spent in each phase of
+ * WorldController.update() and how much memory was allocated.
+ *
+ * Run from the assets directory, or through the benchmark task:
+ * gradlew headless:benchmark -Pseconds=120
+ *
+ * @author Gabe Werick
+ */
+public class BenchmarkRunner extends ApplicationAdapter
+{
+	/**
+	 * Game that never shows a screen. Leaving the level (game over or goal
+	 * reached) only raises a flag, so the runner can start the level again.
+	 */
+	private static class BenchmarkGame extends Game
+	{
+		private boolean leftLevel;
+
+		@Override
+		public void create()
+		{
+		}
+
+		@Override
+		public void setScreen(Screen screen)
+		{
+			leftLevel = true;
+		}
+	}
+
+	private final float seconds;
+	private final float warmupSeconds;
+	private final String levelFile;
+
+	private ScriptedInput input;
+	private BenchmarkGame game;
+	private WorldController worldController;
+
+	// totals of the measured run
+	private final String[] phaseNames = new String[4];
+	private final long[] phaseNanos = new long[4];
+	private long updateNanos;
+	private long allocatedBytes;
+	private int ticks;
+	private int restarts;
+
+	/**
+	 * Creates a runner
+	 *
+	 * @param seconds
+	 *            simulated seconds to measure
+	 * @param warmupSeconds
+	 *            simulated seconds to run before measuring
+	 * @param levelFile
+	 *            level to play
+	 */
+	public BenchmarkRunner(float seconds, float warmupSeconds, String levelFile)
+	{
+		this.seconds = seconds;
+		this.warmupSeconds = warmupSeconds;
+		this.levelFile = levelFile;
+	}
+
+	/**
+	 * Arguments: [seconds] [warmup seconds] [level file]
+	 */
+	public static void main(String[] args)
+	{
+		float seconds = args.length > 0 ? Float.parseFloat(args[0]) : 60;
+		float warmupSeconds = args.length > 1 ? Float.parseFloat(args[1]) : 5;
+		String levelFile = args.length > 2 ? args[2] : Constants.LEVEL_01;
+		new HeadlessApplication(new BenchmarkRunner(seconds, warmupSeconds, levelFile),
+				new HeadlessApplicationConfiguration());
+	}
+
+	/**
+	 * Runs the whole benchmark, then exits
+	 */
+	@Override
+	public void create()
+	{
+		Gdx.gl = Gdx.gl20 = HeadlessGL.create();
+		input = new ScriptedInput();
+		Gdx.input = input;
+		Gdx.app.setLogLevel(Application.LOG_ERROR);
+
+		Assets.instance.init(new AssetManager());
+		GamePreferences.instance.load();
+		game = new BenchmarkGame();
+		startLevel();
+
+		// let the JIT settle before measuring
+		simulate(warmupSeconds);
+		ticks = 0;
+		restarts = 0;
+		updateNanos = 0;
+		allocatedBytes = 0;
+		resetPhases();
+
+		int gcCount = getGcCount();
+		long gcMillis = getGcMillis();
+		simulate(seconds);
+		collectPhases();
+
+		report(getGcCount() - gcCount, getGcMillis() - gcMillis);
+		worldController.dispose();
+		Gdx.app.exit();
+	}
+
+	/**
+	 * Loads the level into a new world controller
+	 */
+	private void startLevel()
+	{
+		if (worldController != null)
+		{
+			collectPhases();
+			worldController.dispose();
+		}
+		game.leftLevel = false;
+		input.reset();
+		worldController = new WorldController(game, new Level(levelFile));
+	}
+
+	/**
+	 * Runs the game loop for a number of simulated seconds. Restarting the level
+	 * is not counted as update time.
+	 */
+	private void simulate(float seconds)
+	{
+		float step = 1.0f / Constants.SIMULATION_TICK_RATE;
+		int steps = (int) (seconds * Constants.SIMULATION_TICK_RATE);
+		long segmentStart = TimeUtils.nanoTime();
+		long segmentBytes = getAllocatedBytes();
+		for (int i = 0; i < steps; i++)
+		{
+			if (game.leftLevel)
+			{
+				updateNanos += TimeUtils.nanoTime() - segmentStart;
+				allocatedBytes += getAllocatedBytes() - segmentBytes;
+				startLevel();
+				restarts++;
+				segmentStart = TimeUtils.nanoTime();
+				segmentBytes = getAllocatedBytes();
+			}
+			input.advance(step);
+			worldController.update(step);
+			ticks++;
+		}
+		updateNanos += TimeUtils.nanoTime() - segmentStart;
+		allocatedBytes += getAllocatedBytes() - segmentBytes;
+	}
+
+	/**
+	 * Returns the update phase timers of the current world controller
+	 */
+	private PhaseTimer[] getPhases()
+	{
+		return new PhaseTimer[] { worldController.levelUpdateTimer, worldController.collisionTimer,
+				worldController.physicsTimer, worldController.cameraTimer };
+	}
+
+	/**
+	 * Adds the phase timers of the current world controller to the totals
+	 */
+	private void collectPhases()
+	{
+		PhaseTimer[] phases = getPhases();
+		for (int i = 0; i < phases.length; i++)
+		{
+			phaseNames[i] = phases[i].name;
+			phaseNanos[i] += phases[i].totalNanos;
+			phases[i].reset();
+		}
+	}
+
+	/**
+	 * Forgets the phase times measured so far
+	 */
+	private void resetPhases()
+	{
+		for (PhaseTimer phase : getPhases())
+			phase.reset();
+		for (int i = 0; i < phaseNanos.length; i++)
+			phaseNanos[i] = 0;
+	}
+
+	/**
+	 * Prints the results of the measured run
+	 */
+	private void report(int gcCount, long gcMillis)
+	{
+		double updateSeconds = updateNanos / 1e9;
+		System.out.println(String.format("Simulated %.1f s of %s: %d ticks at %d Hz, %d restarts", seconds,
+				levelFile, ticks, Constants.SIMULATION_TICK_RATE, restarts));
+		System.out.println(String.format("Ticks per second: %.1f (%.3f ms per tick)", ticks / updateSeconds,
+				updateNanos / 1e6 / ticks));
+		System.out.println();
+		System.out.println(String.format("%-22s %12s %14s %8s", "phase", "total ms", "mean us/tick", "share"));
+		for (int i = 0; i < phaseNames.length; i++)
+		{
+			System.out.println(String.format("%-22s %12.1f %14.2f %7.1f%%", phaseNames[i], phaseNanos[i] / 1e6,
+					phaseNanos[i] / 1e3 / ticks, 100.0 * phaseNanos[i] / updateNanos));
+		}
+		System.out.println();
+		if (getAllocatedBytes() >= 0)
+		{
+			System.out.println(String.format("Allocated: %.2f MB, %.1f bytes per tick, %.2f MB/s", allocatedBytes / 1e6,
+					(double) allocatedBytes / ticks, allocatedBytes / 1e6 / updateSeconds));
+		} else
+			System.out.println("Allocated: not supported by this JVM");
+		System.out.println(String.format("Garbage collections: %d, %d ms", gcCount, gcMillis));
+	}
+
+	/**
+	 * Returns the number of bytes allocated by this thread so far, or -1 if the
+	 * JVM cannot tell
+	 */
+	private static long getAllocatedBytes()
+	{
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean))
+			return -1;
+		com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+		if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled())
+			return -1;
+		return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Returns the number of garbage collections so far
+	 */
+	private static int getGcCount()
+	{
+		int count = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, bean.getCollectionCount());
+		return count;
+	}
+
+	/**
+	 * Returns the time spent collecting garbage so far
+	 */
+	private static long getGcMillis()
+	{
+		long millis = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+			millis += Math.max(0, bean.getCollectionTime());
+		return millis;
+	}
+}
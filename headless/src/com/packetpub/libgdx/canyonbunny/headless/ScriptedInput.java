@@ -0,0 +1,50 @@
+package com.packetpub.libgdx.canyonbunny.headless;
+
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+
+/**
+ * Input that plays the game on its own: it always runs right and holds jump
+ * for part of every jump period. Stands in for Gdx.input in benchmarks, so
+ * every run sees the same input.
+ *
+ * @author Gabe Werick
+ */
+public class ScriptedInput extends MockInput
+{
+	// seconds between the starts of two jumps
+	private static final float JUMP_PERIOD = 1.0f;
+	// seconds the jump key is held
+	private static final float JUMP_HOLD = 0.3f;
+
+	private float time;
+
+	/**
+	 * Moves the script forward
+	 *
+	 * @param deltaTime
+	 *            simulated time that has passed
+	 */
+	public void advance(float deltaTime)
+	{
+		time += deltaTime;
+	}
+
+	/**
+	 * Restarts the script from the beginning
+	 */
+	public void reset()
+	{
+		time = 0;
+	}
+
+	@Override
+	public boolean isKeyPressed(int key)
+	{
+		if (key == Keys.RIGHT)
+			return true;
+		if (key == Keys.SPACE)
+			return time % JUMP_PERIOD < JUMP_HOLD;
+		return false;
+	}
+}